@@ -38,6 +38,8 @@ package org.orbisgis.commons.printer;
 
 import org.orbisgis.commons.annotations.NotNull;
 
+import java.util.Arrays;
+
 import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
 
 /**
@@ -48,6 +50,32 @@ import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
  */
 public class Ascii extends CustomPrinter {
 
+    /**
+     * Line separator of the current table, built once at the table start
+     */
+    private char[] lineSeparator = new char[0];
+    /**
+     * Separator drawn above the title of the current table, built once at the table start
+     */
+    private char[] titleSeparator = new char[0];
+    /**
+     * Blank characters used for the padding of the cells, at least as long as the column width
+     */
+    private char[] padding = new char[0];
+    /**
+     * Template of the rows of the current table, with the borders, blank cells and the line end, built once at the
+     * table start
+     */
+    private char[] rowTemplate = new char[0];
+    /**
+     * Row of the current table into which the cells are written before being appended
+     */
+    private char[] row = new char[0];
+    /**
+     * Offset in the row of the first character of each cell of the current table
+     */
+    private int[] cellOffsets = new int[0];
+
     /**
      * Constructor.
      *
@@ -57,9 +85,20 @@ public class Ascii extends CustomPrinter {
         super(builder);
         if (this.builder.length() != 0) {
             builder.append("\n");
+            markOutputStart();
         }
     }
 
+    /**
+     * Constructor streaming the printed data into the given {@link Appendable}.
+     *
+     * @param sink           Not null {@link Appendable} receiving the printed data.
+     * @param flushThreshold Count of characters kept in memory before writing them into the sink.
+     */
+    public Ascii(@NotNull Appendable sink, int flushThreshold) {
+        super(sink, flushThreshold);
+    }
+
     /**
      * Main constructor.
      */
@@ -67,17 +106,52 @@ public class Ascii extends CustomPrinter {
         super(new StringBuilder());
     }
 
+    @Override
+    protected void initTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        super.initTable(columnWidths, columnPositions);
+        int width = Math.max(columnWidth, 0);
+        titleSeparator = new char[width + 3];
+        Arrays.fill(titleSeparator, '-');
+        titleSeparator[0] = '+';
+        titleSeparator[width + 1] = '+';
+        titleSeparator[width + 2] = '\n';
+        int length = 2;
+        for (int columnWidth : this.columnWidths) {
+            length += Math.max(columnWidth, 0) + 1;
+        }
+        lineSeparator = new char[length];
+        Arrays.fill(lineSeparator, '-');
+        lineSeparator[0] = '+';
+        int index = 0;
+        for (int columnWidth : this.columnWidths) {
+            index += Math.max(columnWidth, 0) + 1;
+            lineSeparator[index] = '+';
+        }
+        lineSeparator[length - 1] = '\n';
+        rowTemplate = new char[length];
+        Arrays.fill(rowTemplate, ' ');
+        cellOffsets = new int[this.columnWidths.length];
+        index = 0;
+        for (int i = 0; i < this.columnWidths.length; i++) {
+            rowTemplate[index] = '|';
+            cellOffsets[i] = index + 1;
+            index += Math.max(this.columnWidths[i], 0) + 1;
+        }
+        rowTemplate[index] = '|';
+        rowTemplate[length - 1] = '\n';
+        row = rowTemplate.clone();
+        int paddingLength = Math.max(width, length - 3);
+        if (padding.length < paddingLength) {
+            padding = new char[paddingLength];
+            Arrays.fill(padding, ' ');
+        }
+    }
+
     @Override
     public void appendTableLineSeparator() {
         if (isDrawingTable) {
-            builder.append("+");
-            for (int i = 0; i < columnCount; i++) {
-                for (int j = 0; j < columnWidth; j++) {
-                    builder.append("-");
-                }
-                builder.append("+");
-            }
-            builder.append("\n");
+            builder.append(lineSeparator);
+            flushIfNeeded();
         }
     }
 
@@ -86,78 +160,197 @@ public class Ascii extends CustomPrinter {
         checkNotNull(value, "The value to append should not be null.");
         checkNotNull(position, "The position of the value should not be null.");
         if (isDrawingTable) {
+            appendCell(formatCell(value), position, false);
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        checkRow(values);
+        if (isDrawingTable) {
+            for (Object value : values) {
+                if (!isDrawingTable) {
+                    //The output has been truncated
+                    return;
+                }
+                appendCell(formatCell(value), columnPositions[columnIndex], false);
+            }
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        checkRows(rows);
+        if (isDrawingTable) {
+            for (Object[] row : rows) {
+                for (Object value : row) {
+                    if (!isDrawingTable) {
+                        //The output has been truncated
+                        return;
+                    }
+                    appendCell(formatCell(value), columnPositions[columnIndex], false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void appendTableValue(double value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable && doubleFormatter != null && position == CellPosition.RIGHT) {
+            int start = builder.length();
             builder.append("|");
-            String cut = value.toString();
-            if (cut.length() > columnWidth) {
-                cut = cut.substring(0, columnWidth - 3) + "...";
+            if (doubleFormatter.appendRightAligned(value, builder, columnWidths[columnIndex])) {
+                endCell();
+                return;
             }
+            builder.setLength(start);
+        }
+        super.appendTableValue(value, position);
+    }
 
+    /**
+     * Write the cell into the row from the compiled template, then append the cell with its left border, and with the
+     * end of the row after the last cell, in a single append.
+     */
+    @Override
+    protected void appendCell(@NotNull CharSequence value, @NotNull CellPosition position, boolean isHeader) {
+        int offset = cellOffsets[columnIndex];
+        int width = Math.max(columnWidths[columnIndex], 0);
+        System.arraycopy(rowTemplate, offset, row, offset, width);
+        int length = value.length();
+        if (length > width) {
+            int ellipsis = Math.min(ELLIPSIS.length(), width);
+            copy(value, width - ellipsis, offset);
+            ELLIPSIS.getChars(0, ellipsis, row, offset + width - ellipsis);
+        } else {
+            int blank = width - length;
             switch (position) {
                 case LEFT:
-                    builder.append(cut);
-                    for (int i = 0; i < (columnWidth - cut.length()); i++) {
-                        builder.append(" ");
-                    }
+                    copy(value, length, offset);
                     break;
                 case RIGHT:
-                    for (int i = 0; i < (columnWidth - cut.length()); i++) {
-                        builder.append(" ");
-                    }
-                    builder.append(cut);
+                    copy(value, length, offset + blank);
                     break;
                 case CENTER:
                 default:
-                    for (int i = 0; i < (columnWidth - cut.length()) / 2; i++) {
-                        builder.append(" ");
-                    }
-                    builder.append(cut);
-                    for (int i = 0; i < (columnWidth - cut.length()) - (columnWidth - cut.length()) / 2; i++) {
-                        builder.append(" ");
-                    }
+                    copy(value, length, offset + blank / 2);
                     break;
             }
-            columnIndex++;
-            if (columnIndex == columnCount) {
-                columnIndex = 0;
-                builder.append("|");
-                builder.append("\n");
+        }
+        int end = columnIndex == columnCount - 1 ? row.length : offset + width;
+        builder.append(row, offset - 1, end - offset + 1);
+        columnIndex++;
+        if (columnIndex == columnCount) {
+            columnIndex = 0;
+            flushIfNeeded();
+        }
+    }
+
+    /**
+     * Copy the first characters of the given value into the row.
+     *
+     * @param value  Not null value to copy.
+     * @param count  Count of characters to copy.
+     * @param offset Offset in the row of the first character.
+     */
+    private void copy(@NotNull CharSequence value, int count, int offset) {
+        if (value instanceof String) {
+            ((String) value).getChars(0, count, row, offset);
+        } else if (value instanceof StringBuilder) {
+            ((StringBuilder) value).getChars(0, count, row, offset);
+        } else {
+            for (int i = 0; i < count; i++) {
+                row[offset + i] = value.charAt(i);
             }
         }
     }
 
+    /**
+     * End the current cell, ending the row after its last cell.
+     */
+    private void endCell() {
+        columnIndex++;
+        if (columnIndex == columnCount) {
+            columnIndex = 0;
+            builder.append("|\n");
+            flushIfNeeded();
+        }
+    }
+
+    /**
+     * Append the given value padded to the given width according to its position. If the value is too long, only its
+     * visible part followed by an ellipsis is copied.
+     *
+     * @param value    Not null value to append.
+     * @param width    Width in character number of the value.
+     * @param position Not null position of the value.
+     */
+    private void appendPadded(@NotNull CharSequence value, int width, @NotNull CellPosition position) {
+        int length = value.length();
+        if (length > width) {
+            int ellipsis = Math.min(ELLIPSIS.length(), Math.max(width, 0));
+            builder.append(value, 0, Math.max(width, 0) - ellipsis).append(ELLIPSIS, 0, ellipsis);
+            return;
+        }
+        int blank = width - length;
+        switch (position) {
+            case LEFT:
+                builder.append(value).append(padding, 0, blank);
+                break;
+            case RIGHT:
+                builder.append(padding, 0, blank).append(value);
+                break;
+            case CENTER:
+            default:
+                builder.append(padding, 0, blank / 2).append(value).append(padding, 0, blank - blank / 2);
+                break;
+        }
+    }
+
+    @Override
+    protected void appendTableNote(@NotNull CharSequence note) {
+        if (!isDrawingTable) {
+            return;
+        }
+        builder.append("|");
+        appendPadded(note, Math.max(lineSeparator.length - 3, 0), CellPosition.CENTER);
+        builder.append("|\n");
+        flushIfNeeded();
+    }
+
     @Override
     public void appendTableHeaderValue(@NotNull Object value, @NotNull ICustomPrinter.CellPosition position) {
         checkNotNull(value, "The value to append should not be null.");
         checkNotNull(position, "The position of the value should not be null.");
-        this.appendTableValue(value, position);
+        if (isDrawingTable) {
+            appendCell(formatCell(value), position, false);
+        }
     }
 
     @Override
     public void appendTableTitle(@NotNull Object title) {
         checkNotNull(title, "The title to append should not be null.");
         if (isDrawingTable) {
-            builder.append("+");
-            for (int j = 0; j < columnWidth; j++) {
-                builder.append("-");
-            }
-            builder.append("+");
-            builder.append("\n");
-
-            builder.append("|");
-            String cut = title.toString();
-            if (cut.length() > columnWidth) {
-                cut = cut.substring(0, columnWidth - 3) + "...";
-            }
-            for (int i = 0; i < (columnWidth - cut.length()) / 2; i++) {
-                builder.append(" ");
-            }
-            builder.append(cut);
-            for (int i = 0; i < (columnWidth - cut.length()) - (columnWidth - cut.length()) / 2; i++) {
-                builder.append(" ");
-            }
+            builder.append(titleSeparator);
             builder.append("|");
-            builder.append("\n");
+            appendPadded(format(title, limit(columnWidth)), columnWidth, CellPosition.CENTER);
+            builder.append("|\n");
+            flushIfNeeded();
+        }
+    }
+
+    /**
+     * Print the truncation notice as a note closing the current table, or as a line outside of a table.
+     *
+     * @param notice Not null notice to print.
+     */
+    @Override
+    protected void appendTruncationNotice(@NotNull CharSequence notice) {
+        if (!isDrawingTable) {
+            builder.append(notice).append("\n");
         }
+        super.appendTruncationNotice(notice);
     }
 
     @Override
@@ -166,8 +359,14 @@ public class Ascii extends CustomPrinter {
         if(isDrawingTable){
             appendTableValue(value);
         }
-        else{
-            builder.append(value).append("\n");
+        else if (!isTruncated) {
+            CharSequence text = formatValue(value);
+            if (exceedsBudget(text.length() + 1)) {
+                truncate();
+                return;
+            }
+            builder.append(text).append("\n");
+            flushIfNeeded();
         }
     }
 }
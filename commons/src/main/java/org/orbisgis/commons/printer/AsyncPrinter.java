@@ -0,0 +1,460 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link ICustomPrinter} decorator moving the rendering and the writing of the printed data out of the calling threads.
+ * Each call is pushed into a bounded queue and applied on the decorated printer by a single background thread, so the
+ * producer threads only block when the queue is full. The calls of several producers are applied in their queuing
+ * order, so producers sharing a table should append whole rows with {@link #appendTableRow(Object...)}. The
+ * {@link CharSequence} values other than {@link String} are copied when queued, so that a reused buffer can be
+ * modified as soon as the call returns.
+ * <p>
+ * {@link #flush()} and {@link #toString()} wait for the previous calls to be applied, {@link #close()} waits for them
+ * and stops the background thread. An exception or an error thrown by the decorated printer is rethrown to the
+ * producers by the following call.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class AsyncPrinter implements ICustomPrinter, AutoCloseable {
+
+    /**
+     * Call stopping the background thread
+     */
+    private static final Consumer<ICustomPrinter> STOP = p -> {};
+    /**
+     * Time in milliseconds between two checks of the background thread while waiting for the queue
+     */
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * Not null decorated {@link ICustomPrinter}, only used by the background thread
+     */
+    @NotNull
+    private final ICustomPrinter printer;
+    /**
+     * Bounded queue of the calls to apply on the decorated printer
+     */
+    @NotNull
+    private final BlockingQueue<Consumer<ICustomPrinter>> queue;
+    /**
+     * Background thread applying the calls
+     */
+    @NotNull
+    private final Thread renderer;
+    /**
+     * First exception or error thrown by the decorated printer
+     */
+    @Nullable
+    private volatile Throwable failure;
+    /**
+     * True if the background thread has stopped, false otherwise
+     */
+    private volatile boolean isTerminated;
+    /**
+     * True if the printer has been closed, false otherwise
+     */
+    private volatile boolean isClosed;
+
+    /**
+     * Main constructor.
+     *
+     * @param printer  Not null decorated {@link ICustomPrinter}.
+     * @param capacity Strictly positive count of calls queued before blocking the producers.
+     */
+    public AsyncPrinter(@NotNull ICustomPrinter printer, int capacity) {
+        checkNotNull(printer, "The printer should not be null.");
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The queue capacity should be strictly positive.");
+        }
+        this.printer = printer;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.renderer = new Thread(this::render, "AsyncPrinter-renderer");
+        this.renderer.setDaemon(true);
+        this.renderer.start();
+    }
+
+    /**
+     * Apply the queued calls on the decorated printer until the stop call. Once a call has failed, including with an
+     * {@link Error}, the following ones are discarded so that the producers are never blocked. When the thread stops,
+     * the remaining calls are discarded and their producers released.
+     */
+    private void render() {
+        try {
+            while (true) {
+                Consumer<ICustomPrinter> call;
+                try {
+                    call = queue.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (call == STOP) {
+                    return;
+                }
+                if (failure == null) {
+                    try {
+                        call.accept(printer);
+                    } catch (Throwable e) {
+                        failure = e;
+                    }
+                } else if (call instanceof Barrier) {
+                    ((Barrier) call).latch.countDown();
+                }
+            }
+        } catch (Throwable e) {
+            if (failure == null) {
+                failure = e;
+            }
+        } finally {
+            isTerminated = true;
+            release();
+        }
+    }
+
+    /**
+     * Discard the queued calls, releasing the producers waiting for them.
+     */
+    private void release() {
+        Consumer<ICustomPrinter> call;
+        while ((call = queue.poll()) != null) {
+            if (call instanceof Barrier) {
+                ((Barrier) call).latch.countDown();
+            }
+        }
+    }
+
+    /**
+     * Push the given call into the queue, blocking while the queue is full and the background thread is running.
+     *
+     * @param call Not null call to push.
+     * @return True if the call has been pushed, false if the background thread has stopped.
+     * @throws InterruptedException Exception thrown if the thread is interrupted while waiting.
+     */
+    private boolean enqueue(@NotNull Consumer<ICustomPrinter> call) throws InterruptedException {
+        while (!isTerminated) {
+            if (queue.offer(call, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (isTerminated) {
+                    //The call may have been pushed after the release of the queue by the stopped thread
+                    release();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Throw the exception of the decorated printer if one has been thrown.
+     */
+    private void checkFailure() {
+        Throwable e = failure;
+        if (e != null) {
+            throw new IllegalStateException("The decorated printer has failed.", e);
+        }
+    }
+
+    /**
+     * Push the given call into the queue, blocking while the queue is full.
+     *
+     * @param call Not null call to apply on the decorated printer.
+     */
+    private void submit(@NotNull Consumer<ICustomPrinter> call) {
+        if (isClosed) {
+            throw new IllegalStateException("The printer is closed.");
+        }
+        checkFailure();
+        boolean isQueued;
+        try {
+            isQueued = enqueue(call);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the queue.", e);
+        }
+        if (!isQueued) {
+            checkFailure();
+            throw new IllegalStateException("The background thread of the printer has stopped.");
+        }
+    }
+
+    /**
+     * Push the given call into the queue and wait for it to be applied.
+     *
+     * @param call Not null call to apply on the decorated printer.
+     */
+    private void await(@NotNull Consumer<ICustomPrinter> call) {
+        Barrier barrier = new Barrier(call);
+        submit(barrier);
+        try {
+            barrier.latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the printer.", e);
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void startTable(int columnWidth, int columnCount) {
+        submit(p -> p.startTable(columnWidth, columnCount));
+    }
+
+    @Override
+    public void startTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        checkNotNull(columnWidths, "The column widths should not be null.");
+        checkNotNull(columnPositions, "The column positions should not be null.");
+        int[] widths = columnWidths.clone();
+        CellPosition[] positions = columnPositions.clone();
+        submit(p -> p.startTable(widths, positions));
+    }
+
+    @Override
+    public void endTable() {
+        submit(ICustomPrinter::endTable);
+    }
+
+    @Override
+    public void appendTableLineSeparator() {
+        submit(ICustomPrinter::appendTableLineSeparator);
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        Object copy = copy(value);
+        submit(p -> p.appendTableValue(copy));
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        Object copy = copy(value);
+        submit(p -> p.appendTableValue(copy, position));
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        CustomPrinter.checkRow(values);
+        Object[] row = values.clone();
+        for (int i = 0; i < row.length; i++) {
+            row[i] = copy(row[i]);
+        }
+        submit(p -> p.appendTableRow(row));
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        CustomPrinter.checkRows(rows);
+        for (Object[] row : rows) {
+            appendTableRow(row);
+        }
+    }
+
+    @Override
+    public void appendTableHeaderValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        Object copy = copy(value);
+        submit(p -> p.appendTableHeaderValue(copy, position));
+    }
+
+    @Override
+    public void appendTableTitle(@NotNull Object title) {
+        checkNotNull(title, "The title to append should not be null.");
+        Object copy = copy(title);
+        submit(p -> p.appendTableTitle(copy));
+    }
+
+    @Override
+    public void appendValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        Object copy = copy(value);
+        submit(p -> p.appendValue(copy));
+    }
+
+    /**
+     * Return a copy of the given value if it is a mutable {@link CharSequence}, so that its content is the one at the
+     * time of the call when the call is applied.
+     *
+     * @param value Not null value.
+     * @return The value, or a {@link String} copy of it if it is a {@link CharSequence}.
+     */
+    @NotNull
+    private static Object copy(@NotNull Object value) {
+        return value instanceof CharSequence && !(value instanceof String) ? value.toString() : value;
+    }
+
+    /**
+     * Wait for the previous calls to be applied, then reset the decorated printer.
+     */
+    @Override
+    public void reset() {
+        await(ICustomPrinter::reset);
+    }
+
+    /**
+     * Wait for the previous calls to be applied, then flush the decorated printer.
+     */
+    @Override
+    public void flush() {
+        await(ICustomPrinter::flush);
+    }
+
+    /**
+     * Wait for the previous calls to be applied, flush the decorated printer and stop the background thread. Closing
+     * an already closed printer has no effect.
+     */
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            isClosed = true;
+            try {
+                enqueue(STOP);
+                renderer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while stopping the printer.", e);
+            }
+        }
+    }
+
+    /**
+     * Wait for the previous calls to be applied, then return the string representation of the data printed by the
+     * decorated printer.
+     *
+     * @return The string representation of the printed data.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        String[] text = new String[1];
+        await(p -> text[0] = p.toString());
+        return text[0];
+    }
+
+    /**
+     * Wait for the previous calls to be applied, then return a snapshot of the data printed by the decorated printer.
+     * Unlike the live view of the decorated printer, which is modified by the background thread, the snapshot can be
+     * safely read by the calling thread.
+     *
+     * @return The snapshot of the printed data.
+     */
+    @NotNull
+    @Override
+    public CharSequence asCharSequence() {
+        return toString();
+    }
+
+    /**
+     * Wait for the previous calls to be applied, then write the data printed by the decorated printer from the
+     * background thread.
+     *
+     * @param out Not null {@link Appendable} receiving the data.
+     */
+    @Override
+    public void writeTo(@NotNull Appendable out) {
+        checkNotNull(out, "The appendable should not be null.");
+        await(p -> p.writeTo(out));
+    }
+
+    /**
+     * Wait for the previous calls to be applied, then write the data printed by the decorated printer from the
+     * background thread.
+     *
+     * @param channel Not null {@link WritableByteChannel} receiving the data.
+     */
+    @Override
+    public void writeTo(@NotNull WritableByteChannel channel) {
+        checkNotNull(channel, "The channel should not be null.");
+        await(p -> p.writeTo(channel));
+    }
+
+    /**
+     * Call releasing the waiting producer once applied. After a failure of the decorated printer, the producer is
+     * released without applying the call.
+     */
+    private static class Barrier implements Consumer<ICustomPrinter> {
+
+        /**
+         * Call to apply before the release
+         */
+        @NotNull
+        private final Consumer<ICustomPrinter> call;
+        /**
+         * Latch released once the call is applied
+         */
+        @NotNull
+        private final CountDownLatch latch = new CountDownLatch(1);
+
+        /**
+         * Main constructor.
+         *
+         * @param call Not null call to apply before the release.
+         */
+        private Barrier(@NotNull Consumer<ICustomPrinter> call) {
+            this.call = call;
+        }
+
+        @Override
+        public void accept(@NotNull ICustomPrinter printer) {
+            try {
+                call.accept(printer);
+            } finally {
+                latch.countDown();
+            }
+        }
+    }
+}
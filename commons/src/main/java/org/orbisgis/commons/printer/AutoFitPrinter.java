@@ -0,0 +1,362 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link ICustomPrinter} decorator fitting the column widths of the tables to their content. The first rows of a table
+ * are kept in memory and used to compute the width of each column, then the table is started on the decorated printer
+ * with those widths and the following rows are directly streamed into it. The widths given at the table start are
+ * used as maximum widths. As the table title does not take part in the computation of the widths, it is truncated to
+ * the widest fitted column.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class AutoFitPrinter implements ICustomPrinter {
+
+    /**
+     * Minimum width of a fitted column, keeping enough room for the truncation ellipsis
+     */
+    private static final int MIN_COLUMN_WIDTH = 3;
+
+    /**
+     * Not null decorated {@link ICustomPrinter}
+     */
+    @NotNull
+    private final ICustomPrinter printer;
+    /**
+     * Count of rows kept in memory for the computation of the column widths
+     */
+    private final int lookahead;
+    /**
+     * Calls recorded until the column widths are computed
+     */
+    @NotNull
+    private final List<Consumer<ICustomPrinter>> pending = new ArrayList<>();
+    /**
+     * Maximum width of each column of the current table
+     */
+    @NotNull
+    private int[] maxWidths = new int[0];
+    /**
+     * Fitted width of each column of the current table
+     */
+    @NotNull
+    private int[] fitWidths = new int[0];
+    /**
+     * Default position of the values of each column of the current table
+     */
+    @NotNull
+    private CellPosition[] positions = new CellPosition[0];
+    /**
+     * True if the calls are recorded for the computation of the column widths, false otherwise
+     */
+    private boolean isBuffering;
+    /**
+     * True if a table is currently drawn, false otherwise
+     */
+    private boolean isDrawingTable;
+    /**
+     * Count of cells recorded for the current table
+     */
+    private int cellCount;
+    /**
+     * Buffer receiving the values formatted for the measure of their width
+     */
+    @NotNull
+    private final StringBuilder measureBuffer = new StringBuilder();
+    /**
+     * {@link LimitedWriter} writing the measured values into {@link #measureBuffer}
+     */
+    @NotNull
+    private final LimitedWriter measureWriter = new LimitedWriter(measureBuffer, 0);
+
+    /**
+     * Main constructor.
+     *
+     * @param printer   Not null decorated {@link ICustomPrinter}.
+     * @param lookahead Strictly positive count of rows used to compute the column widths.
+     */
+    public AutoFitPrinter(@NotNull ICustomPrinter printer, int lookahead) {
+        checkNotNull(printer, "The printer should not be null.");
+        if (lookahead <= 0) {
+            throw new IllegalArgumentException("The lookahead row count should be strictly positive.");
+        }
+        this.printer = printer;
+        this.lookahead = lookahead;
+    }
+
+    @Override
+    public void startTable(int columnWidth, int columnCount) {
+        int count = Math.max(columnCount, 0);
+        int[] widths = new int[count];
+        Arrays.fill(widths, columnWidth);
+        CellPosition[] positions = new CellPosition[count];
+        Arrays.fill(positions, CellPosition.LEFT);
+        startTable(widths, positions);
+    }
+
+    @Override
+    public void startTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        checkNotNull(columnWidths, "The column widths should not be null.");
+        checkNotNull(columnPositions, "The column positions should not be null.");
+        if (columnWidths.length != columnPositions.length) {
+            throw new IllegalArgumentException("The column widths and positions should have the same length.");
+        }
+        if (isBuffering) {
+            release();
+        }
+        maxWidths = columnWidths.clone();
+        positions = columnPositions.clone();
+        fitWidths = new int[columnWidths.length];
+        for (int i = 0; i < fitWidths.length; i++) {
+            fitWidths[i] = Math.min(MIN_COLUMN_WIDTH, maxWidths[i]);
+        }
+        cellCount = 0;
+        isDrawingTable = true;
+        isBuffering = columnWidths.length > 0;
+        if (!isBuffering) {
+            printer.startTable(columnWidths, columnPositions);
+        }
+    }
+
+    @Override
+    public void endTable() {
+        if (isBuffering) {
+            release();
+        }
+        isDrawingTable = false;
+        printer.endTable();
+    }
+
+    /**
+     * Start the table on the decorated printer with the fitted column widths and replay the recorded calls.
+     */
+    private void release() {
+        isBuffering = false;
+        printer.startTable(fitWidths, positions);
+        for (Consumer<ICustomPrinter> call : pending) {
+            call.accept(printer);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Record a call done on the table which does not append a cell.
+     *
+     * @param call Not null recorded call.
+     */
+    private void record(@NotNull Consumer<ICustomPrinter> call) {
+        pending.add(call);
+    }
+
+    /**
+     * Record a cell of the table, updating the fitted width of its column, and release the recorded calls once
+     * enough rows have been recorded.
+     *
+     * @param value Not null value of the cell.
+     * @param call  Not null call appending the cell.
+     */
+    private void recordCell(@NotNull Object value, @NotNull Consumer<ICustomPrinter> call) {
+        int column = cellCount % fitWidths.length;
+        fitWidths[column] = Math.min(maxWidths[column], Math.max(fitWidths[column], measure(value, maxWidths[column])));
+        pending.add(call);
+        cellCount++;
+        if (cellCount == lookahead * fitWidths.length) {
+            release();
+        }
+    }
+
+    /**
+     * Return the width of the given value as formatted by the {@link FormatterRegistry} of the decorated printer,
+     * measuring at most one character more than the given maximum width.
+     *
+     * @param value    Not null value to measure.
+     * @param maxWidth Maximum width of the column of the value.
+     * @return The width of the value.
+     */
+    private int measure(@NotNull Object value, int maxWidth) {
+        FormatterRegistry registry = printer instanceof CustomPrinter ?
+                ((CustomPrinter) printer).getFormatterRegistry() : FormatterRegistry.getDefault();
+        measureWriter.reset(CustomPrinter.limit(maxWidth));
+        try {
+            registry.format(value, measureWriter);
+        } catch (LimitedWriter.LimitReachedException e) {
+            //The value is wider than the column
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to format the value.", e);
+        }
+        return measureBuffer.length();
+    }
+
+    @Override
+    public void appendTableLineSeparator() {
+        if (isBuffering) {
+            record(ICustomPrinter::appendTableLineSeparator);
+        } else {
+            printer.appendTableLineSeparator();
+        }
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (isBuffering) {
+            recordCell(value, p -> p.appendTableValue(value));
+        } else {
+            printer.appendTableValue(value);
+        }
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isBuffering) {
+            recordCell(value, p -> p.appendTableValue(value, position));
+        } else {
+            printer.appendTableValue(value, position);
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        CustomPrinter.checkRow(values);
+        for (Object value : values) {
+            appendTableValue(value);
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        CustomPrinter.checkRows(rows);
+        for (Object[] row : rows) {
+            appendTableRow(row);
+        }
+    }
+
+    @Override
+    public void appendTableHeaderValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isBuffering) {
+            recordCell(value, p -> p.appendTableHeaderValue(value, position));
+        } else {
+            printer.appendTableHeaderValue(value, position);
+        }
+    }
+
+    @Override
+    public void appendTableTitle(@NotNull Object title) {
+        checkNotNull(title, "The title to append should not be null.");
+        if (isBuffering) {
+            record(p -> p.appendTableTitle(title));
+        } else {
+            printer.appendTableTitle(title);
+        }
+    }
+
+    @Override
+    public void appendValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (isDrawingTable) {
+            appendTableValue(value);
+        } else {
+            printer.appendValue(value);
+        }
+    }
+
+    @Override
+    public void reset() {
+        pending.clear();
+        isBuffering = false;
+        isDrawingTable = false;
+        cellCount = 0;
+        printer.reset();
+    }
+
+    /**
+     * Stop the computation of the column widths of the current table, then flush the decorated printer.
+     */
+    @Override
+    public void flush() {
+        if (isBuffering) {
+            release();
+        }
+        printer.flush();
+    }
+
+    /**
+     * Return the string representation of the data printed by the decorated printer. The rows kept in memory for the
+     * computation of the column widths are not part of it.
+     *
+     * @return The string representation of the printed data.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        return printer.toString();
+    }
+
+    @NotNull
+    @Override
+    public CharSequence asCharSequence() {
+        return printer.asCharSequence();
+    }
+
+    @Override
+    public void writeTo(@NotNull Appendable out) {
+        printer.writeTo(out);
+    }
+
+    @Override
+    public void writeTo(@NotNull WritableByteChannel channel) {
+        printer.writeTo(channel);
+    }
+}
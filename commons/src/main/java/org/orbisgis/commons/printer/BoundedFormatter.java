@@ -0,0 +1,66 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Formatter writing the text of a value into a {@link Writer} which may be limited in length. Once the limit is
+ * reached, the writer throws an {@link IOException} which should be propagated, so that the formatting of huge values
+ * stops as soon as enough characters are written. The text written should be the same as {@link Object#toString()}
+ * or a more compact form of it.
+ *
+ * @param <T> Type of the formatted values.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+@FunctionalInterface
+public interface BoundedFormatter<T> {
+
+    /**
+     * Write the text of the given value into the given writer.
+     *
+     * @param value Not null value to format.
+     * @param out   Not null {@link Writer} receiving the text, which may be limited in length.
+     * @throws IOException Exception thrown by the writer, including when its limit is reached.
+     */
+    void format(@NotNull T value, @NotNull Writer out) throws IOException;
+}
@@ -0,0 +1,263 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipParameters;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZUtils;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Factory of compressed {@link Writer} which can be used as sink of the {@link CustomPrinter}, so that the printed data
+ * are compressed inline without a second pass on the output :
+ * <pre>{@code
+ * try (Writer writer = new CompressedOutput(CompressedOutput.Format.GZIP).writer(path)) {
+ *     Ascii ascii = new Ascii(writer, 65536);
+ *     ...
+ *     ascii.flush();
+ * }
+ * }</pre>
+ * The characters are encoded in UTF-8 and handed to the compressor by blocks of {@link #setBlockSize(int)} bytes.
+ * The {@link Format#XZ} and {@link Format#ZSTD} formats require the optional {@code org.tukaani:xz} and
+ * {@code com.github.luben:zstd-jni} libraries.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class CompressedOutput {
+
+    /**
+     * Compression formats.
+     */
+    public enum Format {
+        GZIP(".gz", 1, 9, 6),
+        XZ(".xz", 0, 9, 6),
+        ZSTD(".zst", 1, 22, 3);
+
+        /**
+         * Extension of the compressed files
+         */
+        private final String extension;
+        /**
+         * Minimal compression level
+         */
+        private final int minLevel;
+        /**
+         * Maximal compression level
+         */
+        private final int maxLevel;
+        /**
+         * Default compression level
+         */
+        private final int defaultLevel;
+
+        Format(String extension, int minLevel, int maxLevel, int defaultLevel) {
+            this.extension = extension;
+            this.minLevel = minLevel;
+            this.maxLevel = maxLevel;
+            this.defaultLevel = defaultLevel;
+        }
+
+        /**
+         * Return the extension of the files compressed with this format.
+         *
+         * @return The file extension, starting with a dot.
+         */
+        @NotNull
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /**
+     * Default size in bytes of the blocks handed to the compressor
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 65536;
+
+    /**
+     * Compression format
+     */
+    @NotNull
+    private final Format format;
+    /**
+     * Compression level
+     */
+    private int level;
+    /**
+     * Size in bytes of the blocks handed to the compressor
+     */
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    /**
+     * Constructor.
+     *
+     * @param format Not null compression format.
+     */
+    public CompressedOutput(@NotNull Format format) {
+        checkNotNull(format, "The compression format should not be null.");
+        this.format = format;
+        this.level = format.defaultLevel;
+    }
+
+    /**
+     * Return the compression format.
+     *
+     * @return The compression format.
+     */
+    @NotNull
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Set the compression level, which range depends on the format : 1 to 9 for gzip, 0 to 9 for xz and 1 to 22 for
+     * zstd.
+     *
+     * @param level Compression level.
+     */
+    public void setLevel(int level) {
+        if (level < format.minLevel || level > format.maxLevel) {
+            throw new IllegalArgumentException("The " + format + " compression level should be between " +
+                    format.minLevel + " and " + format.maxLevel + ".");
+        }
+        this.level = level;
+    }
+
+    /**
+     * Set the size in bytes of the blocks handed to the compressor.
+     *
+     * @param blockSize Strictly positive block size.
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("The block size should be strictly positive.");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Open a compressed stream writing into the given one. Closing the compressed stream closes the given one.
+     *
+     * @param out Not null {@link OutputStream} receiving the compressed data.
+     * @return The compressed {@link OutputStream}.
+     */
+    @NotNull
+    public OutputStream open(@NotNull OutputStream out) {
+        checkNotNull(out, "The output stream should not be null.");
+        OutputStream compressed;
+        try {
+            switch (format) {
+                case XZ:
+                    if (!XZUtils.isXZCompressionAvailable()) {
+                        throw new IllegalStateException("The xz compression requires the org.tukaani:xz library.");
+                    }
+                    compressed = new XZCompressorOutputStream(out, level);
+                    break;
+                case ZSTD:
+                    if (!ZstdUtils.isZstdCompressionAvailable()) {
+                        throw new IllegalStateException(
+                                "The zstd compression requires the com.github.luben:zstd-jni library.");
+                    }
+                    compressed = new ZstdCompressorOutputStream(out, level);
+                    break;
+                case GZIP:
+                default:
+                    GzipParameters parameters = new GzipParameters();
+                    parameters.setCompressionLevel(level);
+                    compressed = new GzipCompressorOutputStream(out, parameters);
+                    break;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the " + format + " compressed stream.", e);
+        }
+        return new BufferedOutputStream(compressed, blockSize);
+    }
+
+    /**
+     * Open a compressed {@link Writer} writing into the given stream. Closing the writer closes the given stream.
+     *
+     * @param out Not null {@link OutputStream} receiving the compressed data.
+     * @return The compressed {@link Writer}.
+     */
+    @NotNull
+    public Writer writer(@NotNull OutputStream out) {
+        return new OutputStreamWriter(open(out), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open a compressed {@link Writer} writing into the given file, which is created or truncated.
+     *
+     * @param file Not null {@link Path} of the file receiving the compressed data.
+     * @return The compressed {@link Writer}.
+     */
+    @NotNull
+    public Writer writer(@NotNull Path file) {
+        checkNotNull(file, "The file path should not be null.");
+        OutputStream out;
+        try {
+            out = Files.newOutputStream(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open the file '" + file + "'.", e);
+        }
+        try {
+            return writer(out);
+        } catch (RuntimeException | Error e) {
+            //The file stream is closed as the compressed writer, which would have closed it, can not be opened
+            try {
+                out.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Builder of the rows of a table shared by several threads. Each thread appends whole rows into its own buffer without
+ * any lock, the rows being only tagged with their arrival sequence. Once the producer threads are done, the rows are
+ * merged into the target printer by {@link #endTable()}, in arrival order, or by {@link #endTable(Comparator)}, in the
+ * given order :
+ * <pre>{@code
+ * Ascii ascii = new Ascii();
+ * ascii.startTable(20, 2);
+ * ConcurrentTableBuilder builder = new ConcurrentTableBuilder(ascii, 2);
+ * //Each worker thread calls builder.appendTableRow(...)
+ * //Once the workers are joined
+ * builder.endTable();
+ * }</pre>
+ * The table start, the headers and the titles are printed on the target printer by the calling thread. The merge
+ * should not be concurrent with the appending of rows.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class ConcurrentTableBuilder {
+
+    /**
+     * Not null printer receiving the merged rows
+     */
+    @NotNull
+    private final ICustomPrinter printer;
+    /**
+     * Count of values of each row
+     */
+    private final int columnCount;
+    /**
+     * Arrival sequence of the rows
+     */
+    @NotNull
+    private final AtomicLong sequence = new AtomicLong();
+    /**
+     * Buffers of all the threads which have appended rows
+     */
+    @NotNull
+    private final Queue<Stripe> stripes = new ConcurrentLinkedQueue<>();
+    /**
+     * Buffer of the current thread
+     */
+    @NotNull
+    private final ThreadLocal<Stripe> localStripe = ThreadLocal.withInitial(() -> {
+        Stripe stripe = new Stripe();
+        stripes.add(stripe);
+        return stripe;
+    });
+
+    /**
+     * Main constructor.
+     *
+     * @param printer     Not null printer receiving the merged rows.
+     * @param columnCount Strictly positive count of values of each row.
+     */
+    public ConcurrentTableBuilder(@NotNull ICustomPrinter printer, int columnCount) {
+        checkNotNull(printer, "The printer should not be null.");
+        if (columnCount <= 0) {
+            throw new IllegalArgumentException("The column count should be strictly positive.");
+        }
+        this.printer = printer;
+        this.columnCount = columnCount;
+    }
+
+    /**
+     * Append a row into the buffer of the current thread. This method can be called concurrently by several threads.
+     *
+     * @param values Not null values of the row, one per column.
+     */
+    public void appendTableRow(@NotNull Object... values) {
+        CustomPrinter.checkRow(values);
+        if (values.length != columnCount) {
+            throw new IllegalArgumentException("The row should contain " + columnCount + " values.");
+        }
+        localStripe.get().add(sequence.getAndIncrement(), values.clone());
+    }
+
+    /**
+     * Return the count of rows appended since the last merge.
+     *
+     * @return The count of buffered rows.
+     */
+    public long getRowCount() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            count += stripe.size;
+        }
+        return count;
+    }
+
+    /**
+     * Merge the buffered rows into the target printer in arrival order, then end its table.
+     */
+    public void endTable() {
+        endTable(null);
+    }
+
+    /**
+     * Merge the buffered rows into the target printer in the given order, then end its table. The rows equal for the
+     * comparator keep their arrival order.
+     *
+     * @param comparator {@link Comparator} of the rows, null to keep the arrival order.
+     */
+    public void endTable(@Nullable Comparator<Object[]> comparator) {
+        if (comparator == null) {
+            merge(printer::appendTableRow);
+        } else {
+            List<Object[]> rows = new ArrayList<>();
+            merge(rows::add);
+            rows.sort(comparator);
+            printer.appendTableRows(rows);
+        }
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+        printer.endTable();
+    }
+
+    /**
+     * Merge the rows of all the stripes in arrival order. As the rows of each stripe are sorted by sequence, the
+     * stripes are merged with a priority queue of their cursors.
+     *
+     * @param receiver Not null {@link Consumer} receiving the rows.
+     */
+    private void merge(@NotNull Consumer<Object[]> receiver) {
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>(Comparator.comparingLong(Cursor::sequence));
+        for (Stripe stripe : stripes) {
+            if (stripe.size > 0) {
+                cursors.add(new Cursor(stripe));
+            }
+        }
+        while (!cursors.isEmpty()) {
+            Cursor cursor = cursors.poll();
+            receiver.accept(cursor.stripe.rows[cursor.index]);
+            cursor.index++;
+            if (cursor.index < cursor.stripe.size) {
+                cursors.add(cursor);
+            }
+        }
+    }
+
+    /**
+     * Buffer of the rows appended by a thread.
+     */
+    private static class Stripe {
+
+        /**
+         * Arrival sequence of each row
+         */
+        @NotNull
+        private long[] sequences = new long[16];
+        /**
+         * Buffered rows
+         */
+        @NotNull
+        private Object[][] rows = new Object[16][];
+        /**
+         * Count of buffered rows
+         */
+        private volatile int size;
+
+        /**
+         * Add a row to the buffer.
+         *
+         * @param sequence Arrival sequence of the row.
+         * @param row      Not null row.
+         */
+        private void add(long sequence, @NotNull Object[] row) {
+            int index = size;
+            if (index == rows.length) {
+                sequences = Arrays.copyOf(sequences, index * 2);
+                rows = Arrays.copyOf(rows, index * 2);
+            }
+            sequences[index] = sequence;
+            rows[index] = row;
+            size = index + 1;
+        }
+
+        /**
+         * Remove all the buffered rows.
+         */
+        private void clear() {
+            Arrays.fill(rows, 0, size, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Position of the merge in a stripe.
+     */
+    private static class Cursor {
+
+        /**
+         * Stripe read by the cursor
+         */
+        @NotNull
+        private final Stripe stripe;
+        /**
+         * Index of the next row of the stripe
+         */
+        private int index;
+
+        /**
+         * Main constructor.
+         *
+         * @param stripe Not null stripe read by the cursor.
+         */
+        private Cursor(@NotNull Stripe stripe) {
+            this.stripe = stripe;
+        }
+
+        /**
+         * Return the arrival sequence of the next row.
+         *
+         * @return The arrival sequence.
+         */
+        private long sequence() {
+            return stripe.sequences[index];
+        }
+    }
+}
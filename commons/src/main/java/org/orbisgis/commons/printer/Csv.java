@@ -0,0 +1,222 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Extension of {@link CustomPrinter} for the printing of data in a CSV style. Each table row is printed as a CSV
+ * record, the values containing the separator, a quote or a line break being quoted. The column widths are ignored
+ * so the values are never truncated, and the line separators and titles are not printed. Once the output budget is
+ * reached, no truncation notice is printed so that the output stays a valid CSV.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class Csv extends CustomPrinter {
+
+    /**
+     * Character separating the values of a row
+     */
+    private char separator = ',';
+
+    /**
+     * Constructor.
+     *
+     * @param builder Not null {@link StringBuilder} used for building the string.
+     */
+    public Csv(@NotNull StringBuilder builder) {
+        super(builder);
+    }
+
+    /**
+     * Constructor streaming the printed data into the given {@link Appendable}.
+     *
+     * @param sink           Not null {@link Appendable} receiving the printed data.
+     * @param flushThreshold Count of characters kept in memory before writing them into the sink.
+     */
+    public Csv(@NotNull Appendable sink, int flushThreshold) {
+        super(sink, flushThreshold);
+    }
+
+    /**
+     * Main constructor.
+     */
+    public Csv() {
+        super(new StringBuilder());
+    }
+
+    /**
+     * Set the character separating the values of a row. By default, a comma is used.
+     *
+     * @param separator Character separating the values, which should not be a quote or a line break.
+     */
+    public void setSeparator(char separator) {
+        if (separator == '"' || separator == '\n' || separator == '\r') {
+            throw new IllegalArgumentException("The separator should not be a quote or a line break.");
+        }
+        this.separator = separator;
+    }
+
+    @Override
+    public void appendTableLineSeparator() {
+        //The CSV format has no line separator
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            appendCell(formatValue(value), position, false);
+        }
+    }
+
+    @Override
+    public void appendTableHeaderValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            appendCell(formatValue(value), position, true);
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        checkRow(values);
+        if (isDrawingTable) {
+            for (Object value : values) {
+                if (!isDrawingTable) {
+                    //The output has been truncated
+                    return;
+                }
+                appendCell(formatValue(value), CellPosition.LEFT, false);
+            }
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        checkRows(rows);
+        if (isDrawingTable) {
+            for (Object[] row : rows) {
+                for (Object value : row) {
+                    if (!isDrawingTable) {
+                        //The output has been truncated
+                        return;
+                    }
+                    appendCell(formatValue(value), CellPosition.LEFT, false);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void appendCell(@NotNull CharSequence value, @NotNull CellPosition position, boolean isHeader) {
+        if (columnIndex != 0) {
+            builder.append(separator);
+        }
+        appendField(value);
+        columnIndex++;
+        if (columnIndex == columnCount) {
+            columnIndex = 0;
+            builder.append("\n");
+            flushIfNeeded();
+        }
+    }
+
+    /**
+     * Append a single CSV field. The value is scanned once : until a character requiring quotes is found, nothing is
+     * copied, then the value is either copied in bulk or quoted with its quotes doubled.
+     *
+     * @param value Not null value of the field.
+     */
+    private void appendField(@NotNull CharSequence value) {
+        int length = value.length();
+        int i = 0;
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c == separator || c == '"' || c == '\n' || c == '\r') {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            builder.append(value);
+            return;
+        }
+        builder.append('"');
+        int runStart = 0;
+        for (; i < length; i++) {
+            if (value.charAt(i) == '"') {
+                builder.append(value, runStart, i + 1).append('"');
+                runStart = i + 1;
+            }
+        }
+        builder.append(value, runStart, length).append('"');
+    }
+
+    @Override
+    protected void appendTableNote(@NotNull CharSequence note) {
+        //The CSV format has no note
+    }
+
+    @Override
+    public void appendTableTitle(@NotNull Object title) {
+        checkNotNull(title, "The title to append should not be null.");
+        //The CSV format has no title
+    }
+
+    @Override
+    public void appendValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (isDrawingTable) {
+            appendTableValue(value);
+        } else if (!isTruncated) {
+            CharSequence text = formatValue(value);
+            if (exceedsBudget(text.length() + 1)) {
+                truncate();
+                return;
+            }
+            appendField(text);
+            builder.append("\n");
+            flushIfNeeded();
+        }
+    }
+}
@@ -37,6 +37,20 @@
 package org.orbisgis.commons.printer;
 
 import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
 
@@ -48,15 +62,54 @@ import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
  */
 public abstract class CustomPrinter implements ICustomPrinter {
 
+    /**
+     * Ellipsis ending the truncated values
+     */
+    protected static final String ELLIPSIS = "...";
+    /**
+     * Notice printed once the output budget is reached
+     */
+    protected static final String TRUNCATION_NOTICE = "... output truncated ...";
+
     /**
      * Not null {@link StringBuilder} used for the string building
      */
     @NotNull
     protected StringBuilder builder;
     /**
-     * Width in character number of a single column
+     * {@link Appendable} receiving the content of the builder once its length reaches {@link #flushThreshold}, null
+     * if all the content is kept in memory
+     */
+    @Nullable
+    protected Appendable sink;
+    /**
+     * Length of the builder from which its content is written into the {@link #sink}
+     */
+    protected int flushThreshold;
+    /**
+     * Buffer used for the formatting of the primitive values
+     */
+    @NotNull
+    private final StringBuilder valueBuffer = new StringBuilder(32);
+    /**
+     * Buffer used for the copy of the builder content into a {@link Writer}
+     */
+    @Nullable
+    private char[] transferBuffer;
+    /**
+     * Width in character number of the widest column
      */
     protected int columnWidth;
+    /**
+     * Width in character number of each column
+     */
+    @NotNull
+    protected int[] columnWidths = new int[0];
+    /**
+     * Default position of the values of each column
+     */
+    @NotNull
+    protected CellPosition[] columnPositions = new CellPosition[0];
     /**
      * Count of column
      */
@@ -69,6 +122,51 @@ public abstract class CustomPrinter implements ICustomPrinter {
      * Current column index
      */
     protected int columnIndex;
+    /**
+     * Maximum count of characters printed, negative if unlimited
+     */
+    private long outputBudget = -1;
+    /**
+     * Count of characters already written into the sink
+     */
+    private long drainedCount;
+    /**
+     * Length of the builder when the printer was created, its content not being part of the output budget
+     */
+    private int outputStart;
+    /**
+     * Length of the builder at the end of the last fully printed row, table or value
+     */
+    private int boundary;
+    /**
+     * True if the output budget has been reached, false otherwise
+     */
+    protected boolean isTruncated;
+    /**
+     * Not null {@link FormatterRegistry} used to format the values
+     */
+    @NotNull
+    private FormatterRegistry registry = FormatterRegistry.getDefault();
+    /**
+     * True if {@link #registry} has been copied for this printer, false if it may be shared
+     */
+    private boolean isRegistryOwned;
+    /**
+     * {@link DoubleFormatter} of the double values, null if they are written as done by
+     * {@link Double#toString(double)}
+     */
+    @Nullable
+    protected DoubleFormatter doubleFormatter;
+    /**
+     * Buffer receiving the formatted values
+     */
+    @Nullable
+    private StringBuilder formatBuffer;
+    /**
+     * {@link LimitedWriter} writing the formatted values into {@link #formatBuffer}
+     */
+    @Nullable
+    private LimitedWriter formatWriter;
 
     /**
      * Main constructor.
@@ -78,33 +176,761 @@ public abstract class CustomPrinter implements ICustomPrinter {
     protected CustomPrinter(@NotNull StringBuilder builder) {
         checkNotNull(builder, "The builder should not be null.");
         this.builder = builder;
+        this.outputStart = builder.length();
+        this.boundary = outputStart;
+    }
+
+    /**
+     * Constructor for a printer streaming its content into the given {@link Appendable}. The printed data are kept in
+     * memory until their length reaches the given threshold, at the end of a row, of a table or of a value.
+     *
+     * @param sink           {@link Appendable} receiving the printed data.
+     * @param flushThreshold Count of characters kept in memory before writing them into the sink.
+     */
+    protected CustomPrinter(@NotNull Appendable sink, int flushThreshold) {
+        checkNotNull(sink, "The sink should not be null.");
+        if (flushThreshold < 0) {
+            throw new IllegalArgumentException("The flush threshold should be positive.");
+        }
+        this.builder = new StringBuilder(Math.min(flushThreshold, 1 << 16) + 256);
+        this.sink = sink;
+        this.flushThreshold = flushThreshold;
+    }
+
+    /**
+     * Take the current end of the builder as the start of the printed data, so that the characters appended before,
+     * like a separator from the previous content of the builder, are neither counted in the output budget nor removed
+     * on truncation. Should only be called by the constructors.
+     */
+    protected void markOutputStart() {
+        this.outputStart = builder.length();
+        this.boundary = outputStart;
+    }
+
+    /**
+     * Set the maximum count of characters printed, including the ones already written into the sink. Once a row, a
+     * table or a value makes the output exceed the budget, it is removed, the current table is closed with a
+     * truncation notice and the following calls print nothing. The closing and the notice may exceed the budget. The
+     * formats without notes, like CSV and JSON, print no notice so that their output stays valid,
+     * {@link #isTruncated()} telling if it is complete.
+     *
+     * @param outputBudget Maximum count of characters printed, negative for an unlimited output.
+     */
+    public void setOutputBudget(long outputBudget) {
+        this.outputBudget = outputBudget;
+    }
+
+    /**
+     * Return true if the output budget has been reached, false otherwise.
+     *
+     * @return True if the output has been truncated.
+     */
+    public boolean isTruncated() {
+        return isTruncated;
+    }
+
+    /**
+     * Return true if printing the given count of characters more would exceed the output budget.
+     *
+     * @param length Count of characters to print.
+     * @return True if the budget would be exceeded.
+     */
+    protected boolean exceedsBudget(long length) {
+        return outputBudget >= 0 && drainedCount + builder.length() - outputStart + length > outputBudget;
     }
 
+    /**
+     * Return the count of characters which can still be printed before exceeding the output budget.
+     *
+     * @return The count of characters which can still be printed, {@link Long#MAX_VALUE} for an unlimited output.
+     */
+    protected long remainingBudget() {
+        if (outputBudget < 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, outputBudget - drainedCount - builder.length() + outputStart);
+    }
+
+    /**
+     * Remove the data printed since the end of the last fully printed row, table or value, print the truncation
+     * notice and make the following calls no-ops.
+     */
+    protected void truncate() {
+        if (isTruncated) {
+            return;
+        }
+        isTruncated = true;
+        builder.setLength(boundary);
+        appendTruncationNotice(TRUNCATION_NOTICE);
+        boundary = builder.length();
+    }
+
+    /**
+     * Print the truncation notice. By default, the notice is appended as a note of the current table which is then
+     * closed, and nothing is printed outside of a table.
+     *
+     * @param notice Not null notice to print.
+     */
+    protected void appendTruncationNotice(@NotNull CharSequence notice) {
+        if (isDrawingTable) {
+            appendTableNote(notice);
+            this.columnCount = -1;
+            this.columnWidth = -1;
+            this.columnIndex = -1;
+            this.isDrawingTable = false;
+            appendTableEnd();
+        }
+    }
+
+    /**
+     * Enforce the output budget, then write the builder content into the sink if its length has reached the flush
+     * threshold. Should be called by the implementations once a row, a table or a value is fully printed.
+     */
+    protected void flushIfNeeded() {
+        if (!isTruncated && exceedsBudget(0)) {
+            truncate();
+        }
+        markBoundary();
+    }
+
+    /**
+     * Mark the current builder length as the end of a fully printed element, then write the builder content into the
+     * sink if its length has reached the flush threshold.
+     */
+    private void markBoundary() {
+        if (sink != null && builder.length() >= flushThreshold) {
+            drain();
+        }
+        boundary = builder.length();
+    }
+
+    /**
+     * Write the whole builder content into the sink and clear the builder.
+     */
+    private void drain() {
+        if (sink == null || builder.length() == 0) {
+            return;
+        }
+        try {
+            copyTo(sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the printed data into the sink.", e);
+        }
+        drainedCount += builder.length() - outputStart;
+        builder.setLength(0);
+        outputStart = 0;
+        boundary = 0;
+    }
+
+    /**
+     * Copy the builder content into the given {@link Appendable} by chunks, so that no copy of the whole content is
+     * created.
+     *
+     * @param out Not null {@link Appendable} receiving the builder content.
+     * @throws IOException Exception thrown on writing into the {@link Appendable}.
+     */
+    private void copyTo(@NotNull Appendable out) throws IOException {
+        int length = builder.length();
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(builder, 0, length);
+        } else if (out instanceof Writer) {
+            Writer writer = (Writer) out;
+            if (transferBuffer == null) {
+                transferBuffer = new char[8192];
+            }
+            for (int start = 0; start < length; start += transferBuffer.length) {
+                int end = Math.min(length, start + transferBuffer.length);
+                builder.getChars(start, end, transferBuffer, 0);
+                writer.write(transferBuffer, 0, end - start);
+            }
+        } else {
+            for (int start = 0; start < length; start += 8192) {
+                out.append(builder, start, Math.min(length, start + 8192));
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        drain();
+        if (sink instanceof Flushable) {
+            try {
+                ((Flushable) sink).flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to flush the sink.", e);
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        builder.setLength(0);
+        this.outputStart = 0;
+        this.boundary = 0;
+        this.drainedCount = 0;
+        this.isTruncated = false;
+        this.columnCount = -1;
+        this.columnWidth = -1;
+        this.columnIndex = -1;
+        this.isDrawingTable = false;
+    }
+
+    /**
+     * Return the string representation of the printed data. If the printer streams into a sink, only the data not
+     * already written into it are returned.
+     *
+     * @return The string representation of the printed data.
+     */
     @NotNull
     @Override
     public String toString() {
         return builder.toString();
     }
 
+    /**
+     * Return a read-only live view of the printed data, without copy. Each call on the view reads the current content
+     * of the printer, so the view reflects the data printed afterwards, and is empty after a {@link #reset()}. If the
+     * printer streams into a sink, only the data not already written into it are viewed.
+     *
+     * @return The view of the printed data.
+     */
+    @NotNull
+    @Override
+    public CharSequence asCharSequence() {
+        return new View();
+    }
+
+    /**
+     * Write the printed data into the given {@link Appendable} by chunks, without copy of the whole data. If the
+     * printer streams into a sink, only the data not already written into it are written.
+     *
+     * @param out Not null {@link Appendable} receiving the data.
+     */
+    @Override
+    public void writeTo(@NotNull Appendable out) {
+        checkNotNull(out, "The appendable should not be null.");
+        try {
+            copyTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the printed data.", e);
+        }
+    }
+
+    /**
+     * Write the printed data encoded in UTF-8 into the given channel through a fixed size buffer, without copy of the
+     * whole data. If the printer streams into a sink, only the data not already written into it are written.
+     *
+     * @param channel Not null {@link WritableByteChannel} receiving the data.
+     */
+    @Override
+    public void writeTo(@NotNull WritableByteChannel channel) {
+        checkNotNull(channel, "The channel should not be null.");
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer chars = CharBuffer.wrap(builder);
+        ByteBuffer bytes = ByteBuffer.allocate(8192);
+        try {
+            CoderResult result;
+            do {
+                result = encoder.encode(chars, bytes, true);
+                writeFully(bytes, channel);
+            } while (result.isOverflow());
+            do {
+                result = encoder.flush(bytes);
+                writeFully(bytes, channel);
+            } while (result.isOverflow());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the printed data.", e);
+        }
+    }
+
+    /**
+     * Write the content of the given buffer into the channel, then clear the buffer.
+     *
+     * @param bytes   Not null {@link ByteBuffer} to write.
+     * @param channel Not null {@link WritableByteChannel} receiving the bytes.
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    private static void writeFully(@NotNull ByteBuffer bytes, @NotNull WritableByteChannel channel)
+            throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
     @Override
     public void startTable(int columnWidth, int columnCount) {
-        this.columnCount = columnCount;
-        this.columnWidth = columnWidth;
+        int count = Math.max(columnCount, 0);
+        int[] widths = new int[count];
+        Arrays.fill(widths, columnWidth);
+        CellPosition[] positions = new CellPosition[count];
+        Arrays.fill(positions, CellPosition.LEFT);
+        startTable(widths, positions);
+    }
+
+    @Override
+    public void startTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        if (isTruncated) {
+            return;
+        }
+        initTable(columnWidths, columnPositions);
+        appendTableStart();
+        //The opening of the table is kept on truncation so that it can be closed
+        boundary = builder.length();
+    }
+
+    /**
+     * Initialize the layout of a new table without printing anything.
+     *
+     * @param columnWidths    Not null width in character number of each column.
+     * @param columnPositions Not null default position of the values of each column, with the same length as the
+     *                        widths.
+     */
+    protected void initTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        checkNotNull(columnWidths, "The column widths should not be null.");
+        checkNotNull(columnPositions, "The column positions should not be null.");
+        if (columnWidths.length != columnPositions.length) {
+            throw new IllegalArgumentException("The column widths and positions should have the same length.");
+        }
+        int width = 0;
+        for (int i = 0; i < columnWidths.length; i++) {
+            checkNotNull(columnPositions[i], "The column positions should not contains null values.");
+            width = Math.max(width, columnWidths[i]);
+        }
+        this.columnWidths = columnWidths.clone();
+        this.columnPositions = columnPositions.clone();
+        this.columnCount = columnWidths.length;
+        this.columnWidth = width;
         this.columnIndex = 0;
         this.isDrawingTable = true;
     }
 
+    /**
+     * Print the opening of a table, called once its layout is initialized.
+     */
+    protected void appendTableStart() {
+    }
+
     @Override
     public void endTable() {
+        if (isTruncated) {
+            return;
+        }
+        if (exceedsBudget(0)) {
+            truncate();
+            markBoundary();
+            return;
+        }
         this.columnCount = -1;
         this.columnWidth = -1;
         this.columnIndex = -1;
         this.isDrawingTable = false;
+        appendTableEnd();
+        //The closing of the table is allowed to exceed the budget
+        markBoundary();
+    }
+
+    /**
+     * Print the closing of a table.
+     */
+    protected void appendTableEnd() {
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        checkRow(values);
+        for (Object value : values) {
+            appendTableValue(value);
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        checkRows(rows);
+        for (Object[] row : rows) {
+            appendTableRow(row);
+        }
+    }
+
+    /**
+     * Check that the given row and all its values are not null. If not, throws an {@link IllegalArgumentException}.
+     *
+     * @param values Row to check.
+     * @throws IllegalArgumentException Exception thrown in case of null row or null value.
+     */
+    protected static void checkRow(@Nullable Object[] values) throws IllegalArgumentException {
+        checkNotNull(values, "The row to append should not be null.");
+        for (Object value : values) {
+            checkNotNull(value, "The value to append should not be null.");
+        }
+    }
+
+    /**
+     * Check that the given rows and all their values are not null, before any of them is written so that an invalid
+     * batch leaves the output unchanged. If not, throws an {@link IllegalArgumentException}.
+     *
+     * @param rows Rows to check.
+     * @throws IllegalArgumentException Exception thrown in case of null rows, null row or null value.
+     */
+    protected static void checkRows(@Nullable Iterable<Object[]> rows) throws IllegalArgumentException {
+        checkNotNull(rows, "The rows to append should not be null.");
+        for (Object[] row : rows) {
+            checkRow(row);
+        }
     }
 
     @Override
     public void appendTableValue(@NotNull Object value) {
         checkNotNull(value, "The value to append should not be null.");
-        appendTableValue(value, ICustomPrinter.CellPosition.LEFT);
+        appendTableValue(value, isDrawingTable ? columnPositions[columnIndex] : CellPosition.LEFT);
+    }
+
+    @Override
+    public void appendTableValue(int value) {
+        appendTableValue((long) value);
+    }
+
+    @Override
+    public void appendTableValue(int value, @NotNull CellPosition position) {
+        appendTableValue((long) value, position);
+    }
+
+    @Override
+    public void appendTableValue(long value) {
+        if (isDrawingTable) {
+            appendTableValue(value, columnPositions[columnIndex]);
+        }
+    }
+
+    @Override
+    public void appendTableValue(long value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            valueBuffer.setLength(0);
+            valueBuffer.append(value);
+            appendCell(valueBuffer, position, false);
+        }
+    }
+
+    @Override
+    public void appendTableValue(double value) {
+        if (isDrawingTable) {
+            appendTableValue(value, columnPositions[columnIndex]);
+        }
+    }
+
+    @Override
+    public void appendTableValue(double value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            valueBuffer.setLength(0);
+            if (doubleFormatter == null) {
+                valueBuffer.append(value);
+            } else {
+                doubleFormatter.appendTo(value, valueBuffer);
+            }
+            appendCell(valueBuffer, position, false);
+        }
+    }
+
+    @Override
+    public void appendTableValue(float value) {
+        if (isDrawingTable) {
+            appendTableValue(value, columnPositions[columnIndex]);
+        }
+    }
+
+    @Override
+    public void appendTableValue(float value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            valueBuffer.setLength(0);
+            valueBuffer.append(value);
+            appendCell(valueBuffer, position, false);
+        }
+    }
+
+    @Override
+    public void appendTableValue(boolean value) {
+        if (isDrawingTable) {
+            appendTableValue(value, columnPositions[columnIndex]);
+        }
+    }
+
+    @Override
+    public void appendTableValue(boolean value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            appendCell(value ? "true" : "false", position, false);
+        }
+    }
+
+    /**
+     * Append a note spanning the whole width of the current table, between two rows. By default, the note is
+     * appended as a table title.
+     *
+     * @param note Not null note to append.
+     */
+    protected void appendTableNote(@NotNull CharSequence note) {
+        appendTableTitle(note);
+    }
+
+    /**
+     * Return the given value as a {@link CharSequence}, without calling {@link Object#toString()} if it is already
+     * one, so that only the visible part of long values is read.
+     *
+     * @param value Not null value.
+     * @return The value as a {@link CharSequence}.
+     */
+    @NotNull
+    protected static CharSequence toText(@NotNull Object value) {
+        return value instanceof CharSequence ? (CharSequence) value : value.toString();
+    }
+
+    /**
+     * Set the {@link BoundedFormatter} of the values of the given class and of its subclasses for this printer only,
+     * replacing the one of the {@link FormatterRegistry} if any.
+     *
+     * @param type      Not null class of the formatted values.
+     * @param formatter Not null {@link BoundedFormatter} of the values.
+     * @param <T>       Type of the formatted values.
+     */
+    public <T> void setFormatter(@NotNull Class<T> type, @NotNull BoundedFormatter<? super T> formatter) {
+        checkNotNull(type, "The type of the formatted values should not be null.");
+        checkNotNull(formatter, "The formatter should not be null.");
+        if (!isRegistryOwned) {
+            registry = registry.copy();
+            isRegistryOwned = true;
+        }
+        registry.register(type, formatter);
+    }
+
+    /**
+     * Set the {@link DoubleFormatter} of the double values, including the {@link Double} ones.
+     *
+     * @param formatter Not null {@link DoubleFormatter} of the double values.
+     */
+    public void setDoubleFormatter(@NotNull DoubleFormatter formatter) {
+        checkNotNull(formatter, "The double formatter should not be null.");
+        this.doubleFormatter = formatter;
+        setFormatter(Double.class, formatter);
+    }
+
+    /**
+     * Set the {@link FormatterRegistry} used to format the values, the later calls to
+     * {@link #setFormatter(Class, BoundedFormatter)} registering their formatter into a copy of it.
+     *
+     * @param registry Not null {@link FormatterRegistry} used to format the values.
+     */
+    public void setFormatterRegistry(@NotNull FormatterRegistry registry) {
+        checkNotNull(registry, "The formatter registry should not be null.");
+        this.registry = registry;
+        this.isRegistryOwned = false;
+    }
+
+    /**
+     * Return the {@link FormatterRegistry} used to format the values.
+     *
+     * @return The {@link FormatterRegistry} used to format the values.
+     */
+    @NotNull
+    public FormatterRegistry getFormatterRegistry() {
+        return registry;
+    }
+
+    /**
+     * Return the output budget and the formatters of this printer, so that they can be restored with
+     * {@link #restoreSettings(Settings)}. The registry set by {@link #setFormatter(Class, BoundedFormatter)} is then
+     * copied again on the next call, so that the saved one is not modified.
+     *
+     * @return The {@link Settings} of this printer.
+     */
+    @NotNull
+    Settings saveSettings() {
+        isRegistryOwned = false;
+        return new Settings(outputBudget, registry, doubleFormatter);
+    }
+
+    /**
+     * Restore the output budget and the formatters saved by {@link #saveSettings()}.
+     *
+     * @param settings Not null saved {@link Settings}.
+     */
+    void restoreSettings(@NotNull Settings settings) {
+        this.outputBudget = settings.outputBudget;
+        this.registry = settings.registry;
+        this.isRegistryOwned = false;
+        this.doubleFormatter = settings.doubleFormatter;
+    }
+
+    /**
+     * Return true if the values of the given primitive wrapper class are printed like their primitive value, false if
+     * a {@link BoundedFormatter} set for their class changes their text.
+     *
+     * @param wrapper Not null primitive wrapper class.
+     * @return True if the values of the class are printed like their primitive value.
+     */
+    boolean printsLikePrimitive(@NotNull Class<?> wrapper) {
+        BoundedFormatter<Object> formatter = registry.find(wrapper);
+        if (wrapper == Double.class && doubleFormatter != null) {
+            return formatter == (Object) doubleFormatter;
+        }
+        return FormatterRegistry.isToString(formatter);
+    }
+
+    /**
+     * Return the text of the given value, with at most the given count of characters if a {@link BoundedFormatter}
+     * is found for its class in the {@link FormatterRegistry}. Otherwise, the value is returned as done by
+     * {@link #toText(Object)}. The returned {@link CharSequence} may be a reused buffer, so it should not be kept.
+     *
+     * @param value Not null value.
+     * @param limit Positive maximum count of characters of the text of formatted values.
+     * @return The text of the value.
+     */
+    @NotNull
+    protected CharSequence format(@NotNull Object value, int limit) {
+        if (value instanceof CharSequence) {
+            return (CharSequence) value;
+        }
+        BoundedFormatter<Object> formatter = registry.find(value.getClass());
+        if (formatter == null) {
+            return value.toString();
+        }
+        if (formatWriter == null) {
+            formatBuffer = new StringBuilder();
+            formatWriter = new LimitedWriter(formatBuffer, limit);
+        } else {
+            formatWriter.reset(limit);
+        }
+        try {
+            formatter.format(value, formatWriter);
+        } catch (LimitedWriter.LimitReachedException e) {
+            //The text is truncated to the limit
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to format the value.", e);
+        }
+        return formatBuffer;
+    }
+
+    /**
+     * Return the text of the given value for a cell of the current column, the values having a
+     * {@link BoundedFormatter} being formatted with one character more than the column width so that their truncation
+     * can be detected.
+     *
+     * @param value Not null value.
+     * @return The text of the value.
+     */
+    @NotNull
+    protected CharSequence formatCell(@NotNull Object value) {
+        return format(value, limit(columnWidths[columnIndex]));
+    }
+
+    /**
+     * Return the text of the given value printed without width, the values having a {@link BoundedFormatter} being
+     * formatted with one character more than the remaining output budget so that a value exceeding it is never fully
+     * built.
+     *
+     * @param value Not null value.
+     * @return The text of the value.
+     */
+    @NotNull
+    protected CharSequence formatValue(@NotNull Object value) {
+        return format(value, limit((int) Math.min(Integer.MAX_VALUE, remainingBudget())));
+    }
+
+    /**
+     * Return the count of characters needed to print a value in the given width, with one character more so that
+     * its truncation can be detected.
+     *
+     * @param width Width of the value.
+     * @return The count of characters to format.
+     */
+    protected static int limit(int width) {
+        return width < 0 ? 1 : width == Integer.MAX_VALUE ? width : width + 1;
+    }
+
+    /**
+     * Append a single cell to the table without checking the parameters, ending the row once the column count is
+     * reached. The given {@link CharSequence} may be a reused buffer, so it should not be kept. By default, the value
+     * is given as a {@link String} to {@link #appendTableValue(Object, CellPosition)} or
+     * {@link #appendTableHeaderValue(Object, CellPosition)}, implementations should override it to write the value
+     * directly.
+     *
+     * @param value    Not null value of the cell.
+     * @param position Not null position of the value in the cell.
+     * @param isHeader True if the cell is a header cell, false otherwise.
+     */
+    protected void appendCell(@NotNull CharSequence value, @NotNull CellPosition position, boolean isHeader) {
+        if (isHeader) {
+            appendTableHeaderValue(value.toString(), position);
+        } else {
+            appendTableValue(value.toString(), position);
+        }
+    }
+
+    /**
+     * Output budget and formatters of a printer, which are kept by {@link #reset()}.
+     */
+    static final class Settings {
+
+        /**
+         * Maximum count of characters printed, negative if unlimited
+         */
+        private final long outputBudget;
+        /**
+         * Not null {@link FormatterRegistry} used to format the values
+         */
+        @NotNull
+        private final FormatterRegistry registry;
+        /**
+         * {@link DoubleFormatter} of the double values, null if none
+         */
+        @Nullable
+        private final DoubleFormatter doubleFormatter;
+
+        /**
+         * Main constructor.
+         *
+         * @param outputBudget    Maximum count of characters printed, negative if unlimited.
+         * @param registry        Not null {@link FormatterRegistry} used to format the values.
+         * @param doubleFormatter {@link DoubleFormatter} of the double values, null if none.
+         */
+        private Settings(long outputBudget, @NotNull FormatterRegistry registry,
+                         @Nullable DoubleFormatter doubleFormatter) {
+            this.outputBudget = outputBudget;
+            this.registry = registry;
+            this.doubleFormatter = doubleFormatter;
+        }
+    }
+
+    /**
+     * Read-only live view of the printed data, delegating each call to the current {@link #builder}.
+     */
+    private final class View implements CharSequence {
+
+        @Override
+        public int length() {
+            return builder.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return builder.charAt(index);
+        }
+
+        @NotNull
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return builder.subSequence(start, end);
+        }
+
+        @NotNull
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Thread safe pool of direct {@link ByteBuffer} of the same capacity. As the allocation of direct buffers is costly and
+ * their memory is only released by the garbage collection of the buffer, the released buffers are kept to be reused
+ * by the next acquisitions.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class DirectBufferPool {
+
+    /**
+     * Default capacity of the pooled buffers
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    /**
+     * Default count of buffers kept in the pool
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+
+    /**
+     * Capacity of the pooled buffers
+     */
+    private final int bufferSize;
+    /**
+     * Not null buffers available in the pool
+     */
+    @NotNull
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * Main constructor.
+     *
+     * @param bufferSize Strictly positive capacity of the pooled buffers.
+     * @param poolSize   Strictly positive count of buffers kept in the pool.
+     */
+    public DirectBufferPool(int bufferSize, int poolSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("The buffer size should be strictly positive.");
+        }
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("The pool size should be strictly positive.");
+        }
+        this.bufferSize = bufferSize;
+        this.buffers = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    /**
+     * Constructor with the default buffer size and pool size.
+     */
+    public DirectBufferPool() {
+        this(DEFAULT_BUFFER_SIZE, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Return the capacity of the pooled buffers.
+     *
+     * @return The capacity of the pooled buffers.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Return a cleared buffer from the pool, or a new one if the pool is empty.
+     *
+     * @return A cleared direct {@link ByteBuffer}.
+     */
+    @NotNull
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = buffers.poll();
+        return buffer == null ? ByteBuffer.allocateDirect(bufferSize) : buffer;
+    }
+
+    /**
+     * Give back a buffer to the pool. The buffer is cleared and dropped if the pool is full. The buffer should not be
+     * used anymore by the caller.
+     *
+     * @param buffer Not null direct {@link ByteBuffer} acquired from this pool.
+     */
+    public void release(@NotNull ByteBuffer buffer) {
+        checkNotNull(buffer, "The buffer to release should not be null.");
+        if (!buffer.isDirect() || buffer.capacity() != bufferSize) {
+            throw new IllegalArgumentException("The buffer does not come from this pool.");
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * {@link BoundedFormatter} writing the double values, either with a fixed count of decimals or with the shortest
+ * decimal representation reading back as the same double.
+ *
+ * The digits are written directly into a {@link StringBuilder}, without intermediate {@link String}, as long as the
+ * scaled value is an exact integer of a double (lower than 2^53). The fixed mode rounds half up the shortest decimal
+ * representation of the values, like {@link java.util.Formatter} does. The exact product of the value by the power of
+ * ten being known from its rounding error, the values whose scaled value is too close to a midpoint to be decided
+ * are rounded through a {@link BigDecimal}. The shortest mode writes at least one decimal, like {@link Double#toString(double)}, and falls back on it for the values
+ * lower than 10^-3 or greater than 10^7, printed in scientific notation. The other values, like the NaN, the
+ * infinities or the fixed formatting of huge values, are written through a {@link String}.
+ *
+ * The right alignment of a value into a cell computes its length from its decomposition, so the digits are only
+ * written once, after the padding.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class DoubleFormatter implements BoundedFormatter<Number> {
+
+    /**
+     * Maximum count of decimals
+     */
+    public static final int MAX_DECIMALS = 17;
+    /**
+     * Upper bound of the scaled values written without intermediate {@link String}, 2^53
+     */
+    private static final double EXACT_LIMIT = 9007199254740992d;
+    /**
+     * Powers of ten as double, all exact
+     */
+    private static final double[] POWERS = new double[MAX_DECIMALS + 1];
+    /**
+     * Powers of ten as long
+     */
+    private static final long[] LONG_POWERS = new long[MAX_DECIMALS + 1];
+    /**
+     * Blank characters used for the padding
+     */
+    private static final char[] BLANKS = "                                ".toCharArray();
+    /**
+     * {@link DoubleFormatter} writing the shortest representation of the values
+     */
+    private static final DoubleFormatter SHORTEST = new DoubleFormatter(-1);
+    /**
+     * {@link DoubleFormatter} writing the values with a fixed count of decimals, by count of decimals
+     */
+    private static final DoubleFormatter[] FIXED = new DoubleFormatter[MAX_DECIMALS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POWERS[i] = power;
+            LONG_POWERS[i] = power;
+            FIXED[i] = new DoubleFormatter(i);
+            power *= 10;
+        }
+    }
+
+    /**
+     * Count of decimals written, -1 for the shortest representation
+     */
+    private final int decimals;
+
+    /**
+     * Main constructor.
+     *
+     * @param decimals Count of decimals written, -1 for the shortest representation.
+     */
+    private DoubleFormatter(int decimals) {
+        this.decimals = decimals;
+    }
+
+    /**
+     * Return the {@link DoubleFormatter} writing the values with the given count of decimals.
+     *
+     * @param decimals Count of decimals, between 0 and {@link #MAX_DECIMALS}.
+     * @return The {@link DoubleFormatter} writing the values with the given count of decimals.
+     */
+    @NotNull
+    public static DoubleFormatter fixed(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("The count of decimals should be between 0 and " + MAX_DECIMALS + ".");
+        }
+        return FIXED[decimals];
+    }
+
+    /**
+     * Return the {@link DoubleFormatter} writing the shortest representation of the values reading back as the same
+     * double.
+     *
+     * @return The {@link DoubleFormatter} writing the shortest representation of the values.
+     */
+    @NotNull
+    public static DoubleFormatter shortest() {
+        return SHORTEST;
+    }
+
+    /**
+     * Return true if the formatter writes the shortest representation of the values, false if it writes a fixed count
+     * of decimals.
+     *
+     * @return True if the formatter writes the shortest representation of the values.
+     */
+    public boolean isShortest() {
+        return decimals < 0;
+    }
+
+    /**
+     * Return the count of decimals written by the formatter, -1 if it writes the shortest representation.
+     *
+     * @return The count of decimals written by the formatter.
+     */
+    public int getDecimals() {
+        return decimals;
+    }
+
+    /**
+     * Return the count of decimals of the given absolute value, or -1 if it can not be written from its scaled
+     * value.
+     *
+     * @param abs Absolute value.
+     * @return The count of decimals of the value, -1 if it has to be written through a {@link String}.
+     */
+    private int decimalsOf(double abs) {
+        if (decimals >= 0) {
+            return abs * POWERS[decimals] < EXACT_LIMIT ? decimals : -1;
+        }
+        if (abs == 0) {
+            return 1;
+        }
+        if (!(abs >= 1e-3 && abs < 1e7)) {
+            return -1;
+        }
+        for (int i = 1; i <= MAX_DECIMALS; i++) {
+            double scaled = abs * POWERS[i];
+            if (scaled >= EXACT_LIMIT) {
+                return -1;
+            }
+            //Both operands are exact, so the division is rounded as the parsing of the decimal representation
+            if (Math.round(scaled) / POWERS[i] == abs) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the given absolute value multiplied by ten to the power of the given count of decimals, rounded half up
+     * as its shortest decimal representation would be, or -1 if it is too close to a midpoint to be decided.
+     *
+     * @param abs   Absolute value, whose scaled value is lower than 2^53.
+     * @param count Count of decimals.
+     * @return The rounded scaled value, -1 if it has to be rounded through a {@link BigDecimal}.
+     */
+    private static long scale(double abs, int count) {
+        double scaled = abs * POWERS[count];
+        //The power of ten being exact, the exact product is the rounded one plus this rounding error
+        double error = Math.fma(abs, POWERS[count], -scaled);
+        double floor = Math.floor(scaled);
+        double fraction = scaled - floor + error;
+        //The shortest decimal representation is at most half an ulp away from the value
+        if (Math.abs(fraction - 0.5) <= Math.ulp(abs) * POWERS[count]) {
+            return -1;
+        }
+        return (long) floor + (fraction > 0.5 ? 1 : 0);
+    }
+
+    /**
+     * Return the count of digits of the given positive integer.
+     *
+     * @param value Positive integer.
+     * @return The count of digits of the integer.
+     */
+    private static int digitCount(long value) {
+        int count = 1;
+        while (count < LONG_POWERS.length && value >= LONG_POWERS[count]) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Return the text of the given value which can not be written from its scaled value.
+     *
+     * @param value Value to format.
+     * @return The text of the value.
+     */
+    @NotNull
+    private String fallback(double value) {
+        if (decimals < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.toString(value);
+        }
+        return BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    /**
+     * Append the given scaled value.
+     *
+     * @param builder    Not null {@link StringBuilder} receiving the value.
+     * @param isNegative True if the value is negative.
+     * @param scaled     Absolute value multiplied by ten to the power of the count of decimals.
+     * @param count      Count of decimals.
+     */
+    private static void appendScaled(@NotNull StringBuilder builder, boolean isNegative, long scaled, int count) {
+        if (isNegative) {
+            builder.append('-');
+        }
+        builder.append(scaled / LONG_POWERS[count]);
+        if (count > 0) {
+            long fraction = scaled % LONG_POWERS[count];
+            builder.append('.');
+            for (int i = digitCount(fraction); i < count; i++) {
+                builder.append('0');
+            }
+            builder.append(fraction);
+        }
+    }
+
+    /**
+     * Append the given value into the given {@link StringBuilder}.
+     *
+     * @param value   Value to append.
+     * @param builder Not null {@link StringBuilder} receiving the value.
+     */
+    public void appendTo(double value, @NotNull StringBuilder builder) {
+        double abs = Math.abs(value);
+        int count = decimalsOf(abs);
+        long scaled = count < 0 ? -1 : scale(abs, count);
+        if (scaled >= 0) {
+            appendScaled(builder, Double.doubleToRawLongBits(value) < 0, scaled, count);
+        } else if (decimals < 0) {
+            builder.append(value);
+        } else {
+            builder.append(fallback(value));
+        }
+    }
+
+    /**
+     * Append the given value right aligned into the given width. If the value is wider, nothing is appended.
+     *
+     * @param value   Value to append.
+     * @param builder Not null {@link StringBuilder} receiving the value.
+     * @param width   Width in character number of the value.
+     * @return True if the value has been appended, false if it is wider than the given width.
+     */
+    public boolean appendRightAligned(double value, @NotNull StringBuilder builder, int width) {
+        double abs = Math.abs(value);
+        int count = decimalsOf(abs);
+        long scaled = count < 0 ? -1 : scale(abs, count);
+        if (scaled < 0) {
+            String text = fallback(value);
+            if (text.length() > width) {
+                return false;
+            }
+            pad(builder, width - text.length());
+            builder.append(text);
+            return true;
+        }
+        boolean isNegative = Double.doubleToRawLongBits(value) < 0;
+        int length = (isNegative ? 1 : 0) + digitCount(scaled / LONG_POWERS[count]) + (count > 0 ? count + 1 : 0);
+        if (length > width) {
+            return false;
+        }
+        pad(builder, width - length);
+        appendScaled(builder, isNegative, scaled, count);
+        return true;
+    }
+
+    /**
+     * Append the given count of blank characters.
+     *
+     * @param builder Not null {@link StringBuilder} receiving the blank characters.
+     * @param count   Count of blank characters.
+     */
+    private static void pad(@NotNull StringBuilder builder, int count) {
+        for (int i = count; i > 0; i -= BLANKS.length) {
+            builder.append(BLANKS, 0, Math.min(i, BLANKS.length));
+        }
+    }
+
+    @Override
+    public void format(@NotNull Number value, @NotNull Writer out) throws IOException {
+        if (out instanceof LimitedWriter) {
+            ((LimitedWriter) out).appendNumber(value.doubleValue(), this);
+        } else {
+            StringBuilder builder = new StringBuilder();
+            appendTo(value.doubleValue(), builder);
+            out.append(builder);
+        }
+    }
+}
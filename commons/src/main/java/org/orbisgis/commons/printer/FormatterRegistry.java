@@ -0,0 +1,537 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Registry of the {@link BoundedFormatter} used by the printers to format the values according to their class.
+ *
+ * The formatter of a class is the one registered for the class itself, else for its closest superclass, else for one
+ * of its interfaces. The arrays, and the {@link Collection} and the {@link Map} using the {@link Object#toString()}
+ * of a JDK class, without registered formatter are written like {@link java.util.Arrays#deepToString(Object[])} and
+ * {@link Object#toString()} do, their elements being formatted through the registry. The elements of the primitive
+ * arrays are written without boxing unless a formatter is registered for their wrapper class. The resolved formatter
+ * is cached per class in a {@link ClassValue}, so formatting a value does not need any map lookup once its class has
+ * been seen. The cache is dropped on each registration.
+ *
+ * The {@link #getDefault()} registry, used by the printers unless another one is set, formats the {@link Number}, the
+ * {@link LocalDate} and the {@link Instant} with the ISO formats, which give the same text as their
+ * {@link Object#toString()}, and the JTS geometries in WKT if the JTS library is available. The other {@code java.time}
+ * values, whose {@link Object#toString()} omits the zero seconds unlike the ISO formats, keep their
+ * {@link Object#toString()} text unless a {@link TemporalFormatter} is registered for them.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class FormatterRegistry {
+
+    /**
+     * {@link BoundedFormatter} of the {@link Number} of the default registry, declared first as used by
+     * {@link #createDefault()}
+     */
+    private static final BoundedFormatter<Number> NUMBER_FORMATTER = FormatterRegistry::formatNumber;
+    /**
+     * Registry used by default by the printers
+     */
+    private static final FormatterRegistry DEFAULT = createDefault();
+
+    /**
+     * Not null {@link BoundedFormatter} registered for each class, replaced on each registration
+     */
+    @NotNull
+    private volatile Map<Class<?>, BoundedFormatter<?>> formatters;
+    /**
+     * Not null cache of the resolved {@link BoundedFormatter} of each class, replaced on each registration
+     */
+    @NotNull
+    private volatile ClassValue<BoundedFormatter<Object>> cache;
+    /**
+     * Not null {@link BoundedFormatter} of the arrays
+     */
+    @NotNull
+    private final BoundedFormatter<Object> arrayFormatter = this::formatArray;
+    /**
+     * Not null {@link BoundedFormatter} of the {@link Collection}
+     */
+    @NotNull
+    private final BoundedFormatter<Object> collectionFormatter = this::formatCollection;
+    /**
+     * Not null {@link BoundedFormatter} of the {@link Map}
+     */
+    @NotNull
+    private final BoundedFormatter<Object> mapFormatter = this::formatMap;
+
+    /**
+     * Main constructor, creating a registry without registered formatter.
+     */
+    public FormatterRegistry() {
+        this(new HashMap<>());
+    }
+
+    /**
+     * Constructor using the given registered formatters.
+     *
+     * @param formatters Not null {@link BoundedFormatter} registered for each class.
+     */
+    private FormatterRegistry(@NotNull Map<Class<?>, BoundedFormatter<?>> formatters) {
+        this.formatters = formatters;
+        this.cache = newCache();
+    }
+
+    /**
+     * Return the registry used by default by the printers. The formatters registered into it are used by all the
+     * printers which do not have their own registry.
+     *
+     * @return The default registry.
+     */
+    @NotNull
+    public static FormatterRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Create the default registry.
+     *
+     * @return The default registry.
+     */
+    @NotNull
+    private static FormatterRegistry createDefault() {
+        Map<Class<?>, BoundedFormatter<?>> formatters = new HashMap<>();
+        formatters.put(Number.class, NUMBER_FORMATTER);
+        formatters.put(LocalDate.class, new TemporalFormatter(DateTimeFormatter.ISO_LOCAL_DATE));
+        formatters.put(Instant.class, new TemporalFormatter(DateTimeFormatter.ISO_INSTANT));
+        try {
+            Class<?> geometry = Class.forName("org.locationtech.jts.geom.Geometry", false,
+                    FormatterRegistry.class.getClassLoader());
+            formatters.put(geometry, new WktFormatter());
+        } catch (ClassNotFoundException | LinkageError e) {
+            //The JTS library is optional
+        }
+        return new FormatterRegistry(formatters);
+    }
+
+    /**
+     * Return a new registry with the same registered formatters as this one. The later registrations into one of the
+     * registries are not visible into the other one.
+     *
+     * @return A copy of this registry.
+     */
+    @NotNull
+    public FormatterRegistry copy() {
+        return new FormatterRegistry(new HashMap<>(formatters));
+    }
+
+    /**
+     * Register the {@link BoundedFormatter} of the values of the given class and of its subclasses, replacing the
+     * previous one if any.
+     *
+     * @param type      Not null class of the formatted values.
+     * @param formatter Not null {@link BoundedFormatter} of the values.
+     * @param <T>       Type of the formatted values.
+     */
+    public synchronized <T> void register(@NotNull Class<T> type, @NotNull BoundedFormatter<? super T> formatter) {
+        checkNotNull(type, "The type of the formatted values should not be null.");
+        checkNotNull(formatter, "The formatter should not be null.");
+        Map<Class<?>, BoundedFormatter<?>> map = new HashMap<>(formatters);
+        map.put(type, formatter);
+        formatters = map;
+        cache = newCache();
+    }
+
+    /**
+     * Return the {@link BoundedFormatter} of the values of the given class.
+     *
+     * @param type Not null class of the values.
+     * @return The {@link BoundedFormatter} of the values of the given class, null if none.
+     */
+    @Nullable
+    public BoundedFormatter<Object> find(@NotNull Class<?> type) {
+        return cache.get(type);
+    }
+
+    /**
+     * Write the given value into the given {@link Writer} with its {@link BoundedFormatter}, or with
+     * {@link Object#toString()} if there is none.
+     *
+     * @param value Nullable value to write.
+     * @param out   Not null {@link Writer} receiving the text of the value.
+     * @throws IOException Exception thrown if the value can not be written, or if the limit of a
+     *                     {@link LimitedWriter} is reached.
+     */
+    public void format(@Nullable Object value, @NotNull Writer out) throws IOException {
+        if (value == null) {
+            out.write("null");
+        } else if (value instanceof CharSequence) {
+            out.append((CharSequence) value);
+        } else {
+            BoundedFormatter<Object> formatter = cache.get(value.getClass());
+            if (formatter == null) {
+                out.write(value.toString());
+            } else {
+                formatter.format(value, out);
+            }
+        }
+    }
+
+    /**
+     * Create the cache resolving the formatter of each class.
+     *
+     * @return The cache of the formatter of each class.
+     */
+    @NotNull
+    private ClassValue<BoundedFormatter<Object>> newCache() {
+        return new ClassValue<>() {
+            @Override
+            protected BoundedFormatter<Object> computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+    }
+
+    /**
+     * Resolve the {@link BoundedFormatter} of the given class, looking for the formatter of the class, then of its
+     * closest superclass, then of its interfaces.
+     *
+     * @param type Not null class of the values.
+     * @return The {@link BoundedFormatter} of the class, null if none.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private BoundedFormatter<Object> resolve(@NotNull Class<?> type) {
+        Map<Class<?>, BoundedFormatter<?>> map = formatters;
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            BoundedFormatter<?> formatter = map.get(c);
+            if (formatter != null) {
+                return (BoundedFormatter<Object>) formatter;
+            }
+        }
+        Deque<Class<?>> interfaces = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Class<?> i : c.getInterfaces()) {
+                interfaces.add(i);
+            }
+        }
+        while (!interfaces.isEmpty()) {
+            Class<?> i = interfaces.poll();
+            if (visited.add(i)) {
+                BoundedFormatter<?> formatter = map.get(i);
+                if (formatter != null) {
+                    return (BoundedFormatter<Object>) formatter;
+                }
+                for (Class<?> parent : i.getInterfaces()) {
+                    interfaces.add(parent);
+                }
+            }
+        }
+        if (type.isArray()) {
+            return arrayFormatter;
+        }
+        if (Collection.class.isAssignableFrom(type) && hasJdkToString(type)) {
+            return collectionFormatter;
+        }
+        if (Map.class.isAssignableFrom(type) && hasJdkToString(type)) {
+            return mapFormatter;
+        }
+        return null;
+    }
+
+    /**
+     * Return true if the {@link Object#toString()} method of the given class is overridden by a JDK class, like
+     * {@link java.util.AbstractCollection} or {@link java.util.AbstractMap}, so that the class does not define its
+     * own text.
+     *
+     * @param type Not null class of the values.
+     * @return True if the {@link Object#toString()} method of the class is the one of a JDK class.
+     */
+    private static boolean hasJdkToString(@NotNull Class<?> type) {
+        try {
+            Class<?> declaring = type.getMethod("toString").getDeclaringClass();
+            return declaring != Object.class && declaring.getModule() == Object.class.getModule();
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Return true if the given {@link BoundedFormatter} writes the values like their {@link Object#toString()} does.
+     *
+     * @param formatter Nullable {@link BoundedFormatter} to check.
+     * @return True if the formatter writes the values like their {@link Object#toString()} does.
+     */
+    static boolean isToString(@Nullable BoundedFormatter<?> formatter) {
+        return formatter == null || formatter == NUMBER_FORMATTER;
+    }
+
+    /**
+     * Write the given number, the integers being appended without intermediate {@link String} into a
+     * {@link LimitedWriter}.
+     *
+     * @param value Not null number to write.
+     * @param out   Not null {@link Writer} receiving the text of the number.
+     * @throws IOException Exception thrown if the number can not be written.
+     */
+    private static void formatNumber(@NotNull Number value, @NotNull Writer out) throws IOException {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            formatLong(value.longValue(), out);
+        } else {
+            out.write(value.toString());
+        }
+    }
+
+    /**
+     * Write the given integer, without intermediate {@link String} into a {@link LimitedWriter}.
+     *
+     * @param value Integer to write.
+     * @param out   Not null {@link Writer} receiving the text of the integer.
+     * @throws IOException Exception thrown if the integer can not be written.
+     */
+    private static void formatLong(long value, @NotNull Writer out) throws IOException {
+        if (out instanceof LimitedWriter) {
+            ((LimitedWriter) out).appendNumber(value);
+        } else {
+            out.write(Long.toString(value));
+        }
+    }
+
+    /**
+     * Write the given array like {@link java.util.Arrays#deepToString(Object[])}. The elements of the primitive arrays
+     * are written without boxing, unless a formatter is registered for their wrapper class.
+     *
+     * @param value Not null array to write.
+     * @param out   Not null {@link Writer} receiving the text of the array.
+     * @throws IOException Exception thrown if the array can not be written.
+     */
+    private void formatArray(@NotNull Object value, @NotNull Writer out) throws IOException {
+        out.write('[');
+        if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                format(array[i] == array ? "[...]" : array[i], out);
+            }
+        } else if (value instanceof int[]) {
+            int[] array = (int[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Integer.class);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (isToString(formatter)) {
+                    formatLong(array[i], out);
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else if (value instanceof long[]) {
+            long[] array = (long[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Long.class);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (isToString(formatter)) {
+                    formatLong(array[i], out);
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else if (value instanceof short[]) {
+            short[] array = (short[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Short.class);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (isToString(formatter)) {
+                    formatLong(array[i], out);
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else if (value instanceof byte[]) {
+            byte[] array = (byte[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Byte.class);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (isToString(formatter)) {
+                    formatLong(array[i], out);
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else if (value instanceof double[]) {
+            double[] array = (double[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Double.class);
+            DoubleFormatter doubleFormatter = doubleFormatter(formatter, out);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (doubleFormatter != null) {
+                    ((LimitedWriter) out).appendNumber(array[i], doubleFormatter);
+                } else if (isToString(formatter)) {
+                    out.write(Double.toString(array[i]));
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else if (value instanceof float[]) {
+            float[] array = (float[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Float.class);
+            DoubleFormatter doubleFormatter = doubleFormatter(formatter, out);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (doubleFormatter != null) {
+                    ((LimitedWriter) out).appendNumber(array[i], doubleFormatter);
+                } else if (isToString(formatter)) {
+                    out.write(Float.toString(array[i]));
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else if (value instanceof char[]) {
+            char[] array = (char[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Character.class);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (isToString(formatter)) {
+                    out.write(array[i]);
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        } else {
+            boolean[] array = (boolean[]) value;
+            BoundedFormatter<Object> formatter = cache.get(Boolean.class);
+            for (int i = 0; i < array.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                if (isToString(formatter)) {
+                    out.write(array[i] ? "true" : "false");
+                } else {
+                    formatter.format(array[i], out);
+                }
+            }
+        }
+        out.write(']');
+    }
+
+    /**
+     * Return the given {@link BoundedFormatter} if it is a {@link DoubleFormatter} and if the given {@link Writer} is a
+     * {@link LimitedWriter}, so that the numbers can be appended without boxing.
+     *
+     * @param formatter Nullable {@link BoundedFormatter} of the numbers.
+     * @param out       Not null {@link Writer} receiving the text of the numbers.
+     * @return The {@link DoubleFormatter}, null if the numbers can not be appended without boxing.
+     */
+    @Nullable
+    private static DoubleFormatter doubleFormatter(@Nullable BoundedFormatter<?> formatter, @NotNull Writer out) {
+        if (formatter instanceof DoubleFormatter && out instanceof LimitedWriter) {
+            return (DoubleFormatter) formatter;
+        }
+        return null;
+    }
+
+    /**
+     * Write the given {@link Collection} like {@link java.util.AbstractCollection#toString()}.
+     *
+     * @param value Not null {@link Collection} to write.
+     * @param out   Not null {@link Writer} receiving the text of the {@link Collection}.
+     * @throws IOException Exception thrown if the {@link Collection} can not be written.
+     */
+    private void formatCollection(@NotNull Object value, @NotNull Writer out) throws IOException {
+        out.write('[');
+        boolean isFirst = true;
+        for (Object element : (Collection<?>) value) {
+            if (!isFirst) {
+                out.write(", ");
+            }
+            isFirst = false;
+            format(element == value ? "(this Collection)" : element, out);
+        }
+        out.write(']');
+    }
+
+    /**
+     * Write the given {@link Map} like {@link java.util.AbstractMap#toString()}.
+     *
+     * @param value Not null {@link Map} to write.
+     * @param out   Not null {@link Writer} receiving the text of the {@link Map}.
+     * @throws IOException Exception thrown if the {@link Map} can not be written.
+     */
+    private void formatMap(@NotNull Object value, @NotNull Writer out) throws IOException {
+        out.write('{');
+        boolean isFirst = true;
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            if (!isFirst) {
+                out.write(", ");
+            }
+            isFirst = false;
+            format(entry.getKey() == value ? "(this Map)" : entry.getKey(), out);
+            out.write('=');
+            format(entry.getValue() == value ? "(this Map)" : entry.getValue(), out);
+        }
+        out.write('}');
+    }
+}
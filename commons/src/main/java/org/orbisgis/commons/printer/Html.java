@@ -57,6 +57,16 @@ public class Html extends CustomPrinter {
         super(builder);
     }
 
+    /**
+     * Constructor streaming the printed data into the given {@link Appendable}.
+     *
+     * @param sink           Not null {@link Appendable} receiving the printed data.
+     * @param flushThreshold Count of characters kept in memory before writing them into the sink.
+     */
+    public Html(@NotNull Appendable sink, int flushThreshold) {
+        super(sink, flushThreshold);
+    }
+
     /**
      * Main constructor.
      */
@@ -68,18 +78,17 @@ public class Html extends CustomPrinter {
     public void appendTableLineSeparator() {
         if (isDrawingTable) {
             builder.append("<tr></tr>\n");
+            flushIfNeeded();
         }
     }
 
     @Override
-    public void startTable(int columnWidth, int columnCount) {
+    protected void appendTableStart() {
         builder.append("<table>\n");
-        super.startTable(columnWidth, columnCount);
     }
 
     @Override
-    public void endTable() {
-        super.endTable();
+    protected void appendTableEnd() {
         builder.append("</table>\n");
     }
 
@@ -88,24 +97,7 @@ public class Html extends CustomPrinter {
         checkNotNull(value, "The value to append should not be null.");
         checkNotNull(position, "The position of the value should not be null.");
         if (isDrawingTable) {
-            if (columnIndex == 0) {
-                builder.append("<tr>\n");
-            }
-            String cut = value.toString();
-            if (cut.length() > columnWidth) {
-                cut = cut.substring(0, columnWidth - 3) + "...";
-            }
-            builder.append("<td align=\"");
-            builder.append(position);
-            builder.append("\">");
-            builder.append(cut);
-            builder.append("</td>");
-            builder.append("\n");
-            columnIndex++;
-            if (columnIndex == columnCount) {
-                builder.append("</tr>\n");
-                columnIndex = 0;
-            }
+            appendCell(formatCell(value), position, false);
         }
     }
 
@@ -114,49 +106,167 @@ public class Html extends CustomPrinter {
         checkNotNull(value, "The value to append should not be null.");
         checkNotNull(position, "The position of the value should not be null.");
         if (isDrawingTable) {
-            if (columnIndex == 0) {
-                builder.append("<tr>\n");
-            }
-            String cut = value.toString();
-            if (cut.length() > columnWidth) {
-                cut = cut.substring(0, columnWidth - 3) + "...";
+            appendCell(formatCell(value), position, true);
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        checkRow(values);
+        if (isDrawingTable) {
+            for (Object value : values) {
+                if (!isDrawingTable) {
+                    //The output has been truncated
+                    return;
+                }
+                appendCell(formatCell(value), columnPositions[columnIndex], false);
             }
-            builder.append("<th align=\"");
-            builder.append(position);
-            builder.append("\">");
-            builder.append(cut);
-            builder.append("</th>");
-            builder.append("\n");
-            columnIndex++;
-            if (columnIndex == columnCount) {
-                builder.append("</tr>\n");
-                columnIndex = 0;
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        checkRows(rows);
+        if (isDrawingTable) {
+            for (Object[] row : rows) {
+                for (Object value : row) {
+                    if (!isDrawingTable) {
+                        //The output has been truncated
+                        return;
+                    }
+                    appendCell(formatCell(value), columnPositions[columnIndex], false);
+                }
             }
         }
     }
 
+    @Override
+    protected void appendCell(@NotNull CharSequence value, @NotNull CellPosition position, boolean isHeader) {
+        if (columnIndex == 0) {
+            builder.append("<tr>\n");
+        }
+        int width = columnWidths[columnIndex];
+        builder.append(isHeader ? "<th align=\"" : "<td align=\"");
+        builder.append(position);
+        builder.append("\">");
+        appendTruncated(value, width);
+        builder.append(isHeader ? "</th>" : "</td>");
+        builder.append("\n");
+        columnIndex++;
+        if (columnIndex == columnCount) {
+            builder.append("</tr>\n");
+            columnIndex = 0;
+            flushIfNeeded();
+        }
+    }
+
+    @Override
+    protected void appendTableNote(@NotNull CharSequence note) {
+        if (!isDrawingTable) {
+            return;
+        }
+        builder.append("<tr>\n<td colspan=\"").append(columnCount).append("\" align=\"CENTER\">");
+        escape(note, 0, note.length(), builder);
+        builder.append("</td>\n</tr>\n");
+        flushIfNeeded();
+    }
+
     @Override
     public void appendTableTitle(@NotNull Object title) {
         checkNotNull(title, "The title to append should not be null.");
         if (isDrawingTable) {
-            String cut = title.toString();
-            if (cut.length() > columnWidth) {
-                cut = cut.substring(0, columnWidth - 3) + "...";
-            }
             builder.append("<caption>");
-            builder.append(cut);
+            appendTruncated(format(title, limit(columnWidth)), columnWidth);
             builder.append("</caption>\n");
+            flushIfNeeded();
         }
     }
 
+    /**
+     * Print the truncation notice as a note closing the current table, or as a paragraph outside of a table.
+     *
+     * @param notice Not null notice to print.
+     */
+    @Override
+    protected void appendTruncationNotice(@NotNull CharSequence notice) {
+        if (!isDrawingTable) {
+            builder.append("<p>").append(notice).append("</p>\n");
+        }
+        super.appendTruncationNotice(notice);
+    }
+
     @Override
     public void appendValue(Object value) {
         checkNotNull(value, "The value to append should not be null.");
         if(isDrawingTable){
             appendTableValue(value);
         }
-        else{
-            builder.append("<p>").append(value).append("</p>\n");
+        else if (!isTruncated) {
+            CharSequence text = formatValue(value);
+            if (exceedsBudget(text.length() + 8)) {
+                truncate();
+                return;
+            }
+            builder.append("<p>");
+            escape(text, 0, text.length(), builder);
+            builder.append("</p>\n");
+            flushIfNeeded();
+        }
+    }
+
+    /**
+     * Append the escaped value to the builder. If the value is longer than the given width, only its visible part
+     * followed by an ellipsis is copied.
+     *
+     * @param value Not null value to append.
+     * @param width Width in character number of the value.
+     */
+    private void appendTruncated(@NotNull CharSequence value, int width) {
+        if (value.length() > width) {
+            int ellipsis = Math.min(ELLIPSIS.length(), Math.max(width, 0));
+            escape(value, 0, Math.max(width, 0) - ellipsis, builder);
+            builder.append(ELLIPSIS, 0, ellipsis);
+        } else {
+            escape(value, 0, value.length(), builder);
+        }
+    }
+
+    /**
+     * Append the given part of the {@link CharSequence} to the {@link StringBuilder}, replacing the HTML special
+     * characters by their entity. The value is scanned once and the parts without special character are copied in
+     * bulk.
+     *
+     * @param value   Not null {@link CharSequence} to escape.
+     * @param start   Index of the first character to escape.
+     * @param end     Index after the last character to escape.
+     * @param builder Not null {@link StringBuilder} receiving the escaped characters.
+     */
+    static void escape(@NotNull CharSequence value, int start, int end, @NotNull StringBuilder builder) {
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            String entity;
+            switch (value.charAt(i)) {
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                case '\'':
+                    entity = "&#39;";
+                    break;
+                default:
+                    continue;
+            }
+            builder.append(value, runStart, i).append(entity);
+            runStart = i + 1;
         }
+        builder.append(value, runStart, end);
     }
 }
@@ -38,6 +38,15 @@ package org.orbisgis.commons.printer;
 
 import org.orbisgis.commons.annotations.NotNull;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
 /**
  * Interface used for the customisation of the printing of Java Objects.
  *
@@ -59,6 +68,30 @@ public interface ICustomPrinter {
      */
     void startTable(int columnWidth, int columnCount);
 
+    /**
+     * Start the drawing of a table with a specific width and default value position for each column. The values
+     * appended without position use the default position of their column. By default, the table is started with
+     * {@link #startTable(int, int)} using the widest column width, implementations should override it to support
+     * the per column layout.
+     *
+     * @param columnWidths    Not null width in character number of each column.
+     * @param columnPositions Not null default position of the values of each column, with the same length as the
+     *                        widths.
+     */
+    default void startTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        checkNotNull(columnWidths, "The column widths should not be null.");
+        checkNotNull(columnPositions, "The column positions should not be null.");
+        if (columnWidths.length != columnPositions.length) {
+            throw new IllegalArgumentException("The column widths and positions should have the same length.");
+        }
+        int width = 0;
+        for (int i = 0; i < columnWidths.length; i++) {
+            checkNotNull(columnPositions[i], "The column positions should not contains null values.");
+            width = Math.max(width, columnWidths[i]);
+        }
+        startTable(width, columnWidths.length);
+    }
+
     /**
      * End the table drawing.
      */
@@ -70,7 +103,8 @@ public interface ICustomPrinter {
     void appendTableLineSeparator();
 
     /**
-     * Add a single value to the table. Linebreak are automatically generated once the column count is reached.
+     * Add a single value to the table with the default position of its column. Linebreak are automatically generated
+     * once the column count is reached.
      *
      * @param value Value to add to the table.
      */
@@ -83,6 +117,152 @@ public interface ICustomPrinter {
      */
     void appendTableValue(@NotNull Object value, @NotNull CellPosition position);
 
+    /**
+     * Add a single int value to the table with the default position of its column. Linebreak are automatically
+     * generated once the column count is reached. By default, the value is boxed, implementations should override it
+     * to write the value without boxing.
+     *
+     * @param value Value to add to the table.
+     */
+    default void appendTableValue(int value) {
+        appendTableValue((Object) value);
+    }
+
+    /**
+     * Add a single int value to the table. Linebreak are automatically generated once the column count is reached.
+     * By default, the value is boxed, implementations should override it to write the value without boxing.
+     *
+     * @param value    Value to add to the table.
+     * @param position Not null position of the value in the cell.
+     */
+    default void appendTableValue(int value, @NotNull CellPosition position) {
+        appendTableValue((Object) value, position);
+    }
+
+    /**
+     * Add a single long value to the table with the default position of its column. Linebreak are automatically
+     * generated once the column count is reached. By default, the value is boxed, implementations should override it
+     * to write the value without boxing.
+     *
+     * @param value Value to add to the table.
+     */
+    default void appendTableValue(long value) {
+        appendTableValue((Object) value);
+    }
+
+    /**
+     * Add a single long value to the table. Linebreak are automatically generated once the column count is reached.
+     * By default, the value is boxed, implementations should override it to write the value without boxing.
+     *
+     * @param value    Value to add to the table.
+     * @param position Not null position of the value in the cell.
+     */
+    default void appendTableValue(long value, @NotNull CellPosition position) {
+        appendTableValue((Object) value, position);
+    }
+
+    /**
+     * Add a single double value to the table with the default position of its column. Linebreak are automatically
+     * generated once the column count is reached. By default, the value is boxed, implementations should override it
+     * to write the value without boxing.
+     *
+     * @param value Value to add to the table.
+     */
+    default void appendTableValue(double value) {
+        appendTableValue((Object) value);
+    }
+
+    /**
+     * Add a single double value to the table. Linebreak are automatically generated once the column count is reached.
+     * By default, the value is boxed, implementations should override it to write the value without boxing.
+     *
+     * @param value    Value to add to the table.
+     * @param position Not null position of the value in the cell.
+     */
+    default void appendTableValue(double value, @NotNull CellPosition position) {
+        appendTableValue((Object) value, position);
+    }
+
+    /**
+     * Add a single float value to the table with the default position of its column, written with its single
+     * precision text. Linebreak are automatically generated once the column count is reached. By default, the value is
+     * boxed, implementations should override it to write the value without boxing.
+     *
+     * @param value Value to add to the table.
+     */
+    default void appendTableValue(float value) {
+        appendTableValue((Object) value);
+    }
+
+    /**
+     * Add a single float value to the table, written with its single precision text. Linebreak are automatically
+     * generated once the column count is reached. By default, the value is boxed, implementations should override it
+     * to write the value without boxing.
+     *
+     * @param value    Value to add to the table.
+     * @param position Not null position of the value in the cell.
+     */
+    default void appendTableValue(float value, @NotNull CellPosition position) {
+        appendTableValue((Object) value, position);
+    }
+
+    /**
+     * Add a single boolean value to the table with the default position of its column. Linebreak are automatically
+     * generated once the column count is reached. By default, the value is boxed, implementations should override it
+     * to write the value without boxing.
+     *
+     * @param value Value to add to the table.
+     */
+    default void appendTableValue(boolean value) {
+        appendTableValue((Object) value);
+    }
+
+    /**
+     * Add a single boolean value to the table. Linebreak are automatically generated once the column count is reached.
+     * By default, the value is boxed, implementations should override it to write the value without boxing.
+     *
+     * @param value    Value to add to the table.
+     * @param position Not null position of the value in the cell.
+     */
+    default void appendTableValue(boolean value, @NotNull CellPosition position) {
+        appendTableValue((Object) value, position);
+    }
+
+    /**
+     * Add a full row of values to the table. Each value is appended as with {@link #appendTableValue(Object)}, so
+     * the values are only checked once and the row is written in a single pass.
+     *
+     * @param values Not null values of the row, which should not contains null values.
+     */
+    default void appendTableRow(@NotNull Object... values) {
+        checkNotNull(values, "The row to append should not be null.");
+        for (Object value : values) {
+            checkNotNull(value, "The value to append should not be null.");
+        }
+        for (Object value : values) {
+            appendTableValue(value);
+        }
+    }
+
+    /**
+     * Add several rows of values to the table. Each row is appended as with {@link #appendTableRow(Object...)}. All
+     * the rows are checked before the first one is appended, so an invalid batch appends nothing.
+     *
+     * @param rows Not null {@link Iterable} of rows, which should not contains null rows or values.
+     */
+    default void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        checkNotNull(rows, "The rows to append should not be null.");
+        for (Object[] row : rows) {
+            checkNotNull(row, "The row to append should not be null.");
+            for (Object value : row) {
+                checkNotNull(value, "The value to append should not be null.");
+            }
+        }
+        for (Object[] row : rows) {
+            appendTableRow(row);
+        }
+    }
+
     /**
      * Add a header value to the table. Linebreak are automatically generated once the column count is reached.
      *
@@ -104,6 +284,64 @@ public interface ICustomPrinter {
      */
     void appendValue(@NotNull Object value);
 
+    /**
+     * Clear the printed data not yet written into a sink and the state of the current table, keeping the memory
+     * already allocated so the printer can be reused. By default, does nothing.
+     */
+    default void reset() {
+        //Nothing to clear by default
+    }
+
+    /**
+     * Write all the pending printed data into the sink of the printer and flush it. Does nothing if the data are
+     * kept in memory, which is the default behavior.
+     */
+    default void flush() {
+        //Nothing to flush by default
+    }
+
+    /**
+     * Return a read-only view of the data contained by the {@link ICustomPrinter}, which may reflect the data printed
+     * afterwards. By default, returns {@link #toString()}.
+     *
+     * @return The not null view of the data contained by the {@link ICustomPrinter}.
+     */
+    @NotNull
+    default CharSequence asCharSequence() {
+        return toString();
+    }
+
+    /**
+     * Write the data contained by the {@link ICustomPrinter} into the given {@link Appendable}.
+     *
+     * @param out Not null {@link Appendable} receiving the data.
+     */
+    default void writeTo(@NotNull Appendable out) {
+        checkNotNull(out, "The appendable should not be null.");
+        try {
+            out.append(asCharSequence());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the printed data.", e);
+        }
+    }
+
+    /**
+     * Write the data contained by the {@link ICustomPrinter} encoded in UTF-8 into the given channel.
+     *
+     * @param channel Not null {@link WritableByteChannel} receiving the data.
+     */
+    default void writeTo(@NotNull WritableByteChannel channel) {
+        checkNotNull(channel, "The channel should not be null.");
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(asCharSequence()));
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the printed data.", e);
+        }
+    }
+
     /**
      * Return the not null string representation of the data contained by the {@link ICustomPrinter} in its specific format.
      *
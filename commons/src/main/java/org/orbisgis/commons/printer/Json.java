@@ -0,0 +1,433 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.commons.io.output.StringBuilderWriter;
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Extension of {@link CustomPrinter} for the printing of data in a JSON style. A table is printed as an array
+ * containing one object per row, the keys of the objects being the header values. The values are written by a
+ * streaming {@link JsonGenerator}, the numbers and booleans keeping their JSON type. The column widths are ignored so
+ * the values are never truncated, and the line separators and titles are not printed. Once the output budget is
+ * reached, the array is closed without truncation notice so that the output stays a valid JSON.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class Json extends CustomPrinter {
+
+    /**
+     * Factory of the {@link JsonGenerator}
+     */
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * {@link JsonGenerator} writing into the builder, created on first use
+     */
+    @Nullable
+    private JsonGenerator generator;
+    /**
+     * {@link StringBuilder} the generator writes into
+     */
+    @Nullable
+    private StringBuilder generatorBuilder;
+    /**
+     * Keys of the values of each column of the current table
+     */
+    @NotNull
+    private String[] keys = new String[0];
+    /**
+     * True if the object of the current row has been started, false otherwise
+     */
+    private boolean isRowStarted;
+
+    /**
+     * Constructor.
+     *
+     * @param builder Not null {@link StringBuilder} used for building the string.
+     */
+    public Json(@NotNull StringBuilder builder) {
+        super(builder);
+    }
+
+    /**
+     * Constructor streaming the printed data into the given {@link Appendable}.
+     *
+     * @param sink           Not null {@link Appendable} receiving the printed data.
+     * @param flushThreshold Count of characters kept in memory before writing them into the sink.
+     */
+    public Json(@NotNull Appendable sink, int flushThreshold) {
+        super(sink, flushThreshold);
+    }
+
+    /**
+     * Main constructor.
+     */
+    public Json() {
+        super(new StringBuilder());
+    }
+
+    /**
+     * Return the {@link JsonGenerator} writing into the current builder.
+     *
+     * @return The {@link JsonGenerator}.
+     */
+    @NotNull
+    private JsonGenerator generator() {
+        if (generator == null || generatorBuilder != builder) {
+            try {
+                generator = FACTORY.createGenerator(new StringBuilderWriter(builder));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to create the JSON generator.", e);
+            }
+            generator.setRootValueSeparator(null);
+            generatorBuilder = builder;
+        }
+        return generator;
+    }
+
+    /**
+     * Write the content buffered by the {@link JsonGenerator} into the builder.
+     */
+    private void flushGenerator() {
+        if (generator != null) {
+            try {
+                generator.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+        }
+    }
+
+    @Override
+    protected void initTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        super.initTable(columnWidths, columnPositions);
+        keys = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            keys[i] = "column" + (i + 1);
+        }
+        isRowStarted = false;
+    }
+
+    @Override
+    protected void appendTableStart() {
+        try {
+            generator().writeStartArray();
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the JSON data.", e);
+        }
+    }
+
+    @Override
+    protected void appendTableEnd() {
+        if (generator == null || !generator.getOutputContext().inArray()) {
+            return;
+        }
+        try {
+            if (isRowStarted) {
+                generator.writeEndObject();
+                isRowStarted = false;
+            }
+            generator.writeEndArray();
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the JSON data.", e);
+        }
+        builder.append("\n");
+    }
+
+    @Override
+    public void appendTableLineSeparator() {
+        //The JSON format has no line separator
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            try {
+                startField();
+                writeValue(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+            endField();
+        }
+    }
+
+    @Override
+    public void appendTableValue(long value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            try {
+                startField();
+                generator().writeNumber(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+            endField();
+        }
+    }
+
+    @Override
+    public void appendTableValue(double value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            try {
+                startField();
+                generator().writeNumber(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+            endField();
+        }
+    }
+
+    @Override
+    public void appendTableValue(float value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            try {
+                startField();
+                generator().writeNumber(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+            endField();
+        }
+    }
+
+    @Override
+    public void appendTableValue(boolean value, @NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            try {
+                startField();
+                generator().writeBoolean(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+            endField();
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        checkRow(values);
+        if (isDrawingTable) {
+            for (Object value : values) {
+                appendTableValue(value, CellPosition.LEFT);
+            }
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        checkRows(rows);
+        if (isDrawingTable) {
+            for (Object[] row : rows) {
+                appendTableRow(row);
+            }
+        }
+    }
+
+    @Override
+    protected void appendCell(@NotNull CharSequence value, @NotNull CellPosition position, boolean isHeader) {
+        if (isHeader) {
+            keys[columnIndex] = value.toString();
+            endField();
+            return;
+        }
+        try {
+            startField();
+            generator().writeString(value.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the JSON data.", e);
+        }
+        endField();
+    }
+
+    /**
+     * Start the object of the row if needed and write the key of the current column.
+     *
+     * @throws IOException Exception thrown on writing the JSON data.
+     */
+    private void startField() throws IOException {
+        JsonGenerator generator = generator();
+        if (!isRowStarted) {
+            generator.writeStartObject();
+            isRowStarted = true;
+        }
+        generator.writeFieldName(keys[columnIndex]);
+    }
+
+    /**
+     * Go to the next column, ending the object of the row once the column count is reached.
+     */
+    private void endField() {
+        columnIndex++;
+        if (columnIndex == columnCount) {
+            columnIndex = 0;
+            if (isRowStarted) {
+                try {
+                    generator().writeEndObject();
+                    generator.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Unable to write the JSON data.", e);
+                }
+                isRowStarted = false;
+                flushIfNeeded();
+            }
+        }
+    }
+
+    /**
+     * Write the given value with the JSON type matching its Java type.
+     *
+     * @param value Not null value to write.
+     * @throws IOException Exception thrown on writing the JSON data.
+     */
+    private void writeValue(@NotNull Object value) throws IOException {
+        JsonGenerator generator = generator();
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else if (value instanceof Float) {
+            generator.writeNumber((Float) value);
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else {
+            generator.writeString(formatValue(value).toString());
+        }
+    }
+
+    @Override
+    public void appendTableHeaderValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            appendCell(formatValue(value), position, true);
+        }
+    }
+
+    @Override
+    protected void appendTableNote(@NotNull CharSequence note) {
+        //The JSON format has no note
+    }
+
+    @Override
+    public void appendTableTitle(@NotNull Object title) {
+        checkNotNull(title, "The title to append should not be null.");
+        //The JSON format has no title
+    }
+
+    @Override
+    public void appendValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (isDrawingTable) {
+            appendTableValue(value);
+        } else if (!isTruncated) {
+            try {
+                writeValue(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the JSON data.", e);
+            }
+            flushGenerator();
+            builder.append("\n");
+            flushIfNeeded();
+        }
+    }
+
+    @Override
+    public void reset() {
+        generator = null;
+        generatorBuilder = null;
+        isRowStarted = false;
+        super.reset();
+    }
+
+    @Override
+    public void flush() {
+        flushGenerator();
+        super.flush();
+    }
+
+    @NotNull
+    @Override
+    public String toString() {
+        flushGenerator();
+        return super.toString();
+    }
+
+    @NotNull
+    @Override
+    public CharSequence asCharSequence() {
+        flushGenerator();
+        return super.asCharSequence();
+    }
+
+    @Override
+    public void writeTo(@NotNull Appendable out) {
+        flushGenerator();
+        super.writeTo(out);
+    }
+
+    @Override
+    public void writeTo(@NotNull WritableByteChannel channel) {
+        flushGenerator();
+        super.writeTo(channel);
+    }
+}
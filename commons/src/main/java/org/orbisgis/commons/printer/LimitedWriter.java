@@ -0,0 +1,247 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link Writer} appending at most a given count of characters into a {@link StringBuilder}. Once the limit is reached,
+ * the characters fitting in are appended and a {@link LimitReachedException}, without stack trace, is thrown to abort
+ * the formatting of the value. The writer can be reused with {@link #reset(int)}.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class LimitedWriter extends Writer {
+
+    /**
+     * Not null {@link StringBuilder} receiving the characters
+     */
+    @NotNull
+    private final StringBuilder builder;
+    /**
+     * Maximum length of the builder
+     */
+    private int limit;
+    /**
+     * True if the limit has been reached, false otherwise
+     */
+    private boolean isLimitReached;
+
+    /**
+     * Main constructor.
+     *
+     * @param builder Not null {@link StringBuilder} receiving the characters.
+     * @param limit   Positive maximum count of characters appended.
+     */
+    public LimitedWriter(@NotNull StringBuilder builder, int limit) {
+        checkNotNull(builder, "The builder should not be null.");
+        this.builder = builder;
+        reset(limit);
+    }
+
+    /**
+     * Clear the builder and set the maximum count of characters appended.
+     *
+     * @param limit Positive maximum count of characters appended.
+     */
+    public void reset(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("The limit should be positive.");
+        }
+        builder.setLength(0);
+        this.limit = limit;
+        this.isLimitReached = false;
+    }
+
+    /**
+     * Return true if the limit has been reached, meaning that the text in the builder is truncated, false otherwise.
+     *
+     * @return True if the limit has been reached.
+     */
+    public boolean isLimitReached() {
+        return isLimitReached;
+    }
+
+    /**
+     * Return the count of characters which can still be appended, throwing the {@link LimitReachedException} if
+     * the limit is already reached.
+     *
+     * @return The count of characters which can still be appended.
+     * @throws LimitReachedException Exception thrown if the limit is already reached.
+     */
+    private int room() throws LimitReachedException {
+        if (isLimitReached) {
+            throw new LimitReachedException();
+        }
+        return limit - builder.length();
+    }
+
+    /**
+     * Mark the limit as reached and throw the {@link LimitReachedException}.
+     *
+     * @throws LimitReachedException Exception always thrown.
+     */
+    private void limitReached() throws LimitReachedException {
+        isLimitReached = true;
+        throw new LimitReachedException();
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (room() < 1) {
+            limitReached();
+        }
+        builder.append((char) c);
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+        int room = room();
+        if (len <= room) {
+            builder.append(cbuf, off, len);
+        } else {
+            builder.append(cbuf, off, room);
+            limitReached();
+        }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        append(str, off, off + len);
+    }
+
+    @NotNull
+    @Override
+    public Writer append(@Nullable CharSequence csq) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        return append(sequence, 0, sequence.length());
+    }
+
+    @NotNull
+    @Override
+    public Writer append(@Nullable CharSequence csq, int start, int end) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        int room = room();
+        if (end - start <= room) {
+            builder.append(sequence, start, end);
+        } else {
+            builder.append(sequence, start, start + room);
+            limitReached();
+        }
+        return this;
+    }
+
+    /**
+     * Append the decimal representation of the given number, directly into the builder if there is enough room, so
+     * that no intermediate {@link String} is created.
+     *
+     * @param value Number to append.
+     * @return This writer.
+     * @throws IOException Exception thrown if the limit is reached.
+     */
+    @NotNull
+    public LimitedWriter appendNumber(long value) throws IOException {
+        if (room() >= 20) {
+            builder.append(value);
+        } else {
+            append(Long.toString(value));
+        }
+        return this;
+    }
+
+    /**
+     * Append the given number formatted by the given {@link DoubleFormatter}, directly into the builder.
+     *
+     * @param value     Number to append.
+     * @param formatter Not null {@link DoubleFormatter} of the number.
+     * @return This writer.
+     * @throws IOException Exception thrown if the limit is reached.
+     */
+    @NotNull
+    public LimitedWriter appendNumber(double value, @NotNull DoubleFormatter formatter) throws IOException {
+        int room = room();
+        int start = builder.length();
+        formatter.appendTo(value, builder);
+        if (builder.length() - start > room) {
+            builder.setLength(start + room);
+            limitReached();
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() {
+        //Nothing to flush as the characters are directly appended
+    }
+
+    @Override
+    public void close() {
+        //Nothing to close as the characters are directly appended
+    }
+
+    /**
+     * Exception thrown once the limit of a {@link LimitedWriter} is reached. It has no stack trace as it is only used
+     * to abort the formatting of a value. As {@link IOException} does not allow to disable the suppression, a new
+     * instance is thrown each time so that the suppressed exceptions are never shared.
+     */
+    public static final class LimitReachedException extends IOException {
+
+        /**
+         * Serialization version identifier
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Main constructor.
+         */
+        private LimitReachedException() {
+            super("The limit of the writer is reached.");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Renderer of table rows using several threads. The rows are split into chunks, each chunk is rendered by a
+ * {@link ForkJoinPool} worker into its own printer with the layout of the target table, then the rendered chunks are
+ * appended in order to the target printer. The chunk printers use the {@link FormatterRegistry} and the
+ * {@link DoubleFormatter} of the target printer, so the rows are rendered as the target printer would. To keep the memory bounded, only a few chunks per worker are rendered
+ * ahead of the target printer.
+ * <p>
+ * The output budget of the target printer is applied row by row, so the rendering stops on the first row exceeding
+ * it, the pending chunks are cancelled and the table is closed with the truncation notice. The chunks do not render
+ * more rows than the remaining budget of the target printer allows. If the rendering of a chunk fails, the pending
+ * chunks are cancelled too.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class ParallelTableRenderer {
+
+    /**
+     * Count of chunks rendered ahead of the target printer by each worker
+     */
+    private static final int CHUNKS_PER_WORKER = 2;
+
+    /**
+     * Not null factory of the printers used to render the chunks, which should be of the same kind as the target one
+     */
+    @NotNull
+    private final Supplier<? extends CustomPrinter> factory;
+    /**
+     * Count of rows of a chunk
+     */
+    private final int chunkSize;
+    /**
+     * Not null {@link ForkJoinPool} rendering the chunks
+     */
+    @NotNull
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Main constructor.
+     *
+     * @param factory   Not null factory of the printers used to render the chunks, which should create in memory
+     *                  printers of the same kind as the target one.
+     * @param chunkSize Strictly positive count of rows of a chunk.
+     */
+    public ParallelTableRenderer(@NotNull Supplier<? extends CustomPrinter> factory, int chunkSize) {
+        checkNotNull(factory, "The printer factory should not be null.");
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size should be strictly positive.");
+        }
+        this.factory = factory;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Set the {@link ForkJoinPool} rendering the chunks. By default, the common pool is used.
+     *
+     * @param pool Not null {@link ForkJoinPool} rendering the chunks.
+     */
+    public void setPool(@NotNull ForkJoinPool pool) {
+        checkNotNull(pool, "The pool should not be null.");
+        this.pool = pool;
+    }
+
+    /**
+     * Render the given rows into the table currently drawn by the given printer. The printer should be at the start
+     * of a row and each row should contain exactly one value per column.
+     *
+     * @param printer Not null printer drawing a table.
+     * @param rows    Not null rows to render.
+     */
+    public void render(@NotNull CustomPrinter printer, @NotNull List<Object[]> rows) {
+        checkNotNull(printer, "The printer should not be null.");
+        checkNotNull(rows, "The rows to append should not be null.");
+        if (!printer.isDrawingTable || printer.columnIndex != 0) {
+            throw new IllegalArgumentException("The printer should be drawing a table at the start of a row.");
+        }
+        int[] widths = printer.columnWidths;
+        ICustomPrinter.CellPosition[] positions = printer.columnPositions;
+        FormatterRegistry registry = printer.getFormatterRegistry();
+        DoubleFormatter doubleFormatter = printer.doubleFormatter;
+        int wave = Math.max(1, pool.getParallelism() * CHUNKS_PER_WORKER);
+        List<Future<Chunk>> futures = new ArrayList<>(wave);
+        int start = 0;
+        while (start < rows.size() && !printer.isTruncated) {
+            futures.clear();
+            long limit = printer.remainingBudget();
+            for (int i = 0; i < wave && start < rows.size(); i++) {
+                List<Object[]> chunk = rows.subList(start, Math.min(rows.size(), start + chunkSize));
+                futures.add(pool.submit(() -> renderChunk(chunk, widths, positions, registry, doubleFormatter,
+                        limit)));
+                start += chunk.size();
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                boolean isAppended;
+                try {
+                    isAppended = append(printer, join(futures.get(i)));
+                } catch (RuntimeException e) {
+                    cancel(futures, i + 1);
+                    throw e;
+                }
+                if (!isAppended) {
+                    cancel(futures, i + 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancel the rendering of the chunks starting at the given index.
+     *
+     * @param futures Not null {@link Future} of the chunk renderings.
+     * @param from    Index of the first chunk to cancel.
+     */
+    private static void cancel(@NotNull List<Future<Chunk>> futures, int from) {
+        for (int i = from; i < futures.size(); i++) {
+            futures.get(i).cancel(true);
+        }
+    }
+
+    /**
+     * Append the rows of a rendered chunk to the given printer one by one, so that its output budget is applied on
+     * each row.
+     *
+     * @param printer Not null printer drawing the table.
+     * @param chunk   Not null rendered chunk.
+     * @return True if all the rendered rows have been appended, false if the output of the printer has been
+     * truncated. As a chunk only stops its rendering once its rows exceed the remaining budget, the output is always
+     * truncated when some of its rows are not rendered.
+     */
+    private static boolean append(@NotNull CustomPrinter printer, @NotNull Chunk chunk) {
+        int rowStart = 0;
+        for (int i = 0; i < chunk.rowCount; i++) {
+            int rowEnd = chunk.rowEnds[i];
+            printer.builder.append(chunk.text, rowStart, rowEnd);
+            printer.flushIfNeeded();
+            if (printer.isTruncated) {
+                return false;
+            }
+            rowStart = rowEnd;
+        }
+        return true;
+    }
+
+    /**
+     * Render a chunk of rows into a new printer with the given table layout and formatters. The rendering stops once the rendered
+     * rows are longer than the given limit, as the following ones would exceed the output budget.
+     *
+     * @param chunk           Not null rows to render.
+     * @param widths          Not null width of each column.
+     * @param positions       Not null default position of the values of each column.
+     * @param registry        Not null {@link FormatterRegistry} of the target printer.
+     * @param doubleFormatter {@link DoubleFormatter} of the target printer, null if none.
+     * @param limit           Maximum count of characters to render.
+     * @return The rendered {@link Chunk}.
+     */
+    @NotNull
+    private Chunk renderChunk(@NotNull List<Object[]> chunk, @NotNull int[] widths,
+                              @NotNull ICustomPrinter.CellPosition[] positions, @NotNull FormatterRegistry registry,
+                              @Nullable DoubleFormatter doubleFormatter, long limit) {
+        CustomPrinter chunkPrinter = factory.get();
+        checkNotNull(chunkPrinter, "The printer factory should not return null.");
+        chunkPrinter.setFormatterRegistry(registry);
+        chunkPrinter.doubleFormatter = doubleFormatter;
+        chunkPrinter.initTable(widths, positions);
+        int[] rowEnds = new int[chunk.size()];
+        int rowCount = 0;
+        for (Object[] row : chunk) {
+            if (chunkPrinter.builder.length() > limit) {
+                break;
+            }
+            CustomPrinter.checkRow(row);
+            if (row.length != widths.length) {
+                throw new IllegalArgumentException("The rows should contain one value per column.");
+            }
+            chunkPrinter.appendTableRow(row);
+            rowEnds[rowCount++] = chunkPrinter.builder.length();
+        }
+        return new Chunk(chunkPrinter.builder, rowEnds, rowCount);
+    }
+
+    /**
+     * Wait for the rendering of a chunk, rethrowing its failure if any.
+     *
+     * @param future Not null {@link Future} of the chunk rendering.
+     * @return The rendered {@link Chunk}.
+     */
+    @NotNull
+    private static Chunk join(@NotNull Future<Chunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rendering the table.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Unable to render the table.", e.getCause());
+        }
+    }
+
+    /**
+     * Rows of a chunk rendered by a worker.
+     */
+    private static class Chunk {
+
+        /**
+         * Not null text of the rendered rows
+         */
+        @NotNull
+        private final StringBuilder text;
+        /**
+         * End offset in the text of each rendered row
+         */
+        @NotNull
+        private final int[] rowEnds;
+        /**
+         * Count of rendered rows
+         */
+        private final int rowCount;
+
+        /**
+         * Main constructor.
+         *
+         * @param text     Not null text of the rendered rows.
+         * @param rowEnds  End offset in the text of each rendered row.
+         * @param rowCount Count of rendered rows.
+         */
+        private Chunk(@NotNull StringBuilder text, @NotNull int[] rowEnds, int rowCount) {
+            this.text = text;
+            this.rowEnds = rowEnds;
+            this.rowCount = rowCount;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Supplier;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Thread safe pool of in memory {@link CustomPrinter}. The released printers are reset and kept with the capacity of
+ * their builder, so the next acquisitions neither allocate a new printer nor grow its builder again. The builders
+ * which have grown above the maximum retained capacity are replaced to avoid keeping huge buffers in the pool.
+ * <p>
+ * The output budget and the formatters of a released printer are restored to the ones set by the factory, so that
+ * the next borrower does not inherit the configuration of the previous one. Only the printers acquired from the pool
+ * can be released, and only once. The released printers are dropped once the pool is full.
+ *
+ * @param <T> Type of the pooled printers.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class PrinterPool<T extends CustomPrinter> {
+
+    /**
+     * Default count of printers kept in the pool
+     */
+    public static final int DEFAULT_POOL_SIZE = 16;
+    /**
+     * Default maximum capacity of the builder of a pooled printer
+     */
+    public static final int DEFAULT_MAX_CAPACITY = 1 << 20;
+
+    /**
+     * Not null factory of the printers
+     */
+    @NotNull
+    private final Supplier<T> factory;
+    /**
+     * Not null printers available in the pool, with the settings set by the factory
+     */
+    @NotNull
+    private final BlockingQueue<Pooled<T>> printers;
+    /**
+     * Not null settings set by the factory of the acquired printers, by printer
+     */
+    @NotNull
+    private final Map<T, CustomPrinter.Settings> acquired = new IdentityHashMap<>();
+    /**
+     * Maximum capacity of the builder of a pooled printer
+     */
+    private final int maxCapacity;
+
+    /**
+     * Main constructor.
+     *
+     * @param factory     Not null factory creating in memory printers.
+     * @param poolSize    Strictly positive count of printers kept in the pool.
+     * @param maxCapacity Maximum capacity of the builder of a pooled printer.
+     */
+    public PrinterPool(@NotNull Supplier<T> factory, int poolSize, int maxCapacity) {
+        checkNotNull(factory, "The printer factory should not be null.");
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("The pool size should be strictly positive.");
+        }
+        if (maxCapacity < 0) {
+            throw new IllegalArgumentException("The maximum capacity should be positive.");
+        }
+        this.factory = factory;
+        this.printers = new ArrayBlockingQueue<>(poolSize);
+        this.maxCapacity = maxCapacity;
+    }
+
+    /**
+     * Constructor with the default pool size and maximum builder capacity.
+     *
+     * @param factory Not null factory creating in memory printers.
+     */
+    public PrinterPool(@NotNull Supplier<T> factory) {
+        this(factory, DEFAULT_POOL_SIZE, DEFAULT_MAX_CAPACITY);
+    }
+
+    /**
+     * Return an empty printer from the pool, or a new one if the pool is empty.
+     *
+     * @return An empty printer.
+     */
+    @NotNull
+    public T acquire() {
+        Pooled<T> pooled = printers.poll();
+        T printer;
+        CustomPrinter.Settings settings;
+        if (pooled == null) {
+            printer = factory.get();
+            checkNotNull(printer, "The printer factory should not return null.");
+            settings = printer.saveSettings();
+        } else {
+            printer = pooled.printer;
+            settings = pooled.settings;
+        }
+        synchronized (acquired) {
+            acquired.put(printer, settings);
+        }
+        return printer;
+    }
+
+    /**
+     * Reset the given printer, restore the output budget and the formatters set by the factory and give it back to the
+     * pool. The printer should not be used anymore by the caller.
+     *
+     * @param printer Not null printer acquired from this pool and not released yet.
+     */
+    public void release(@NotNull T printer) {
+        checkNotNull(printer, "The printer to release should not be null.");
+        CustomPrinter.Settings settings;
+        synchronized (acquired) {
+            settings = acquired.remove(printer);
+        }
+        if (settings == null) {
+            throw new IllegalArgumentException("The printer should be acquired from this pool and not released yet.");
+        }
+        printer.reset();
+        printer.restoreSettings(settings);
+        if (printer.builder.capacity() > maxCapacity) {
+            printer.builder = new StringBuilder(maxCapacity);
+        }
+        printers.offer(new Pooled<>(printer, settings));
+    }
+
+    /**
+     * Printer available in the pool, with the settings set by the factory.
+     *
+     * @param <T> Type of the pooled printer.
+     */
+    private static class Pooled<T> {
+
+        /**
+         * Not null pooled printer
+         */
+        @NotNull
+        private final T printer;
+        /**
+         * Not null settings set by the factory
+         */
+        @NotNull
+        private final CustomPrinter.Settings settings;
+
+        /**
+         * Main constructor.
+         *
+         * @param printer  Not null pooled printer.
+         * @param settings Not null settings set by the factory.
+         */
+        private Pooled(@NotNull T printer, @NotNull CustomPrinter.Settings settings) {
+            this.printer = printer;
+            this.settings = settings;
+        }
+    }
+}
@@ -0,0 +1,707 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link ICustomPrinter} recording the printed tables so that they can be rendered into several printers with
+ * {@link #renderTo(ICustomPrinter)}, without walking the source data again.
+ * <p>
+ * The cells of each table are stored by column, the integer, decimal and boolean values in primitive arrays and the
+ * other values as objects, formatted by the target printer on each rendering like if they were directly printed
+ * into it. The boxed values are rendered through the primitive methods of the target printer, unless it has a
+ * {@link BoundedFormatter} changing the text of their class, in which case they are boxed again. The values and titles
+ * appended outside of a table, the line separators and the titles are recorded as structural events.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class RecordedTable implements ICustomPrinter {
+
+    /**
+     * Event starting a table
+     */
+    private static final byte START = 0;
+    /**
+     * Event ending a table
+     */
+    private static final byte END = 1;
+    /**
+     * Event appending a line separator
+     */
+    private static final byte SEPARATOR = 2;
+    /**
+     * Event appending a title
+     */
+    private static final byte TITLE = 3;
+    /**
+     * Event appending a value outside of a table
+     */
+    private static final byte VALUE = 4;
+    /**
+     * Event appending the next cell of the current table
+     */
+    private static final byte CELL = 5;
+
+    /**
+     * Recorded events
+     */
+    @NotNull
+    private byte[] events = new byte[64];
+    /**
+     * Count of recorded events
+     */
+    private int eventCount;
+    /**
+     * Operands of the start, title and value events, in event order
+     */
+    @NotNull
+    private final List<Object> operands = new ArrayList<>();
+    /**
+     * Columns of each recorded table, in table order
+     */
+    @NotNull
+    private final List<Column[]> tables = new ArrayList<>();
+    /**
+     * Columns of the current table, null if no table is recorded
+     */
+    @Nullable
+    private Column[] columns;
+    /**
+     * Count of cells of the current table
+     */
+    private int cellCount;
+
+    /**
+     * Record an event.
+     *
+     * @param event Event to record.
+     */
+    private void record(byte event) {
+        if (eventCount == events.length) {
+            events = Arrays.copyOf(events, eventCount * 2);
+        }
+        events[eventCount++] = event;
+    }
+
+    /**
+     * Return the column of the next cell of the current table and record the cell event, or return null if no table
+     * is recorded.
+     *
+     * @return The {@link Column} receiving the next cell.
+     */
+    @Nullable
+    private Column nextColumn() {
+        if (columns == null || columns.length == 0) {
+            return null;
+        }
+        record(CELL);
+        return columns[cellCount++ % columns.length];
+    }
+
+    /**
+     * Return the position code of the given position.
+     *
+     * @param position Not null position.
+     * @return The position code.
+     */
+    private static byte code(@NotNull CellPosition position) {
+        checkNotNull(position, "The position of the value should not be null.");
+        return (byte) position.ordinal();
+    }
+
+    @Override
+    public void startTable(int columnWidth, int columnCount) {
+        int count = Math.max(columnCount, 0);
+        int[] widths = new int[count];
+        Arrays.fill(widths, columnWidth);
+        CellPosition[] positions = new CellPosition[count];
+        Arrays.fill(positions, CellPosition.LEFT);
+        startTable(widths, positions);
+    }
+
+    @Override
+    public void startTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        checkNotNull(columnWidths, "The column widths should not be null.");
+        checkNotNull(columnPositions, "The column positions should not be null.");
+        if (columnWidths.length != columnPositions.length) {
+            throw new IllegalArgumentException("The column widths and positions should have the same length.");
+        }
+        record(START);
+        operands.add(columnWidths.clone());
+        operands.add(columnPositions.clone());
+        columns = new Column[columnWidths.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new Column();
+        }
+        tables.add(columns);
+        cellCount = 0;
+    }
+
+    @Override
+    public void endTable() {
+        record(END);
+        columns = null;
+    }
+
+    @Override
+    public void appendTableLineSeparator() {
+        record(SEPARATOR);
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        Column column = nextColumn();
+        if (column != null) {
+            column.addObject(value, Column.DEFAULT_POSITION, false);
+        }
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        byte code = code(position);
+        Column column = nextColumn();
+        if (column != null) {
+            column.addObject(value, code, false);
+        }
+    }
+
+    @Override
+    public void appendTableValue(int value) {
+        appendTableValue((long) value);
+    }
+
+    @Override
+    public void appendTableValue(int value, @NotNull CellPosition position) {
+        appendTableValue((long) value, position);
+    }
+
+    @Override
+    public void appendTableValue(long value) {
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.LONG, value, Column.DEFAULT_POSITION);
+        }
+    }
+
+    @Override
+    public void appendTableValue(long value, @NotNull CellPosition position) {
+        byte code = code(position);
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.LONG, value, code);
+        }
+    }
+
+    @Override
+    public void appendTableValue(double value) {
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.DOUBLE, Double.doubleToRawLongBits(value), Column.DEFAULT_POSITION);
+        }
+    }
+
+    @Override
+    public void appendTableValue(double value, @NotNull CellPosition position) {
+        byte code = code(position);
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.DOUBLE, Double.doubleToRawLongBits(value), code);
+        }
+    }
+
+    @Override
+    public void appendTableValue(float value) {
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.FLOAT, Float.floatToRawIntBits(value), Column.DEFAULT_POSITION);
+        }
+    }
+
+    @Override
+    public void appendTableValue(float value, @NotNull CellPosition position) {
+        byte code = code(position);
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.FLOAT, Float.floatToRawIntBits(value), code);
+        }
+    }
+
+    @Override
+    public void appendTableValue(boolean value) {
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.BOOLEAN, value ? 1 : 0, Column.DEFAULT_POSITION);
+        }
+    }
+
+    @Override
+    public void appendTableValue(boolean value, @NotNull CellPosition position) {
+        byte code = code(position);
+        Column column = nextColumn();
+        if (column != null) {
+            column.addBits(Column.BOOLEAN, value ? 1 : 0, code);
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        CustomPrinter.checkRow(values);
+        for (Object value : values) {
+            appendTableValue(value);
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        CustomPrinter.checkRows(rows);
+        for (Object[] row : rows) {
+            appendTableRow(row);
+        }
+    }
+
+    @Override
+    public void appendTableHeaderValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        byte code = code(position);
+        Column column = nextColumn();
+        if (column != null) {
+            column.addObject(value, code, true);
+        }
+    }
+
+    @Override
+    public void appendTableTitle(@NotNull Object title) {
+        checkNotNull(title, "The title to append should not be null.");
+        record(TITLE);
+        operands.add(title);
+    }
+
+    @Override
+    public void appendValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (columns != null) {
+            appendTableValue(value);
+        } else {
+            record(VALUE);
+            operands.add(value);
+        }
+    }
+
+    /**
+     * Render the recorded data into the given printer.
+     *
+     * @param printer Not null {@link ICustomPrinter} receiving the recorded data.
+     */
+    public void renderTo(@NotNull ICustomPrinter printer) {
+        checkNotNull(printer, "The printer should not be null.");
+        int operandIndex = 0;
+        int tableIndex = 0;
+        Column[] current = null;
+        int cell = 0;
+        boolean[] isPrimitive = Column.primitiveKinds(printer);
+        for (int i = 0; i < eventCount; i++) {
+            switch (events[i]) {
+                case START:
+                    printer.startTable((int[]) operands.get(operandIndex),
+                            (CellPosition[]) operands.get(operandIndex + 1));
+                    operandIndex += 2;
+                    current = tables.get(tableIndex++);
+                    cell = 0;
+                    break;
+                case END:
+                    printer.endTable();
+                    break;
+                case SEPARATOR:
+                    printer.appendTableLineSeparator();
+                    break;
+                case TITLE:
+                    printer.appendTableTitle(operands.get(operandIndex++));
+                    break;
+                case VALUE:
+                    printer.appendValue(operands.get(operandIndex++));
+                    break;
+                case CELL:
+                default:
+                    current[cell % current.length].render(cell / current.length, printer, isPrimitive);
+                    cell++;
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Remove all the recorded data.
+     */
+    @Override
+    public void reset() {
+        events = new byte[64];
+        eventCount = 0;
+        operands.clear();
+        tables.clear();
+        columns = null;
+        cellCount = 0;
+    }
+
+    @Override
+    public void flush() {
+        //Nothing to flush as the data are only recorded
+    }
+
+    /**
+     * Return the recorded data rendered by an {@link Ascii} printer.
+     *
+     * @return The string representation of the recorded data.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        Ascii ascii = new Ascii();
+        renderTo(ascii);
+        return ascii.toString();
+    }
+
+    /**
+     * Cells of a column of a recorded table.
+     */
+    private static class Column {
+
+        /**
+         * Kind of the integer cells
+         */
+        private static final byte LONG = 0;
+        /**
+         * Kind of the decimal cells
+         */
+        private static final byte DOUBLE = 1;
+        /**
+         * Kind of the boolean cells
+         */
+        private static final byte BOOLEAN = 2;
+        /**
+         * Kind of the object cells
+         */
+        private static final byte OBJECT = 3;
+        /**
+         * Kind of the header cells
+         */
+        private static final byte HEADER = 4;
+        /**
+         * Kind of the float cells
+         */
+        private static final byte FLOAT = 5;
+        /**
+         * Kind of the {@link Integer} cells
+         */
+        private static final byte INTEGER_OBJECT = 6;
+        /**
+         * Kind of the {@link Long} cells
+         */
+        private static final byte LONG_OBJECT = 7;
+        /**
+         * Kind of the {@link Short} cells
+         */
+        private static final byte SHORT_OBJECT = 8;
+        /**
+         * Kind of the {@link Byte} cells
+         */
+        private static final byte BYTE_OBJECT = 9;
+        /**
+         * Kind of the {@link Double} cells
+         */
+        private static final byte DOUBLE_OBJECT = 10;
+        /**
+         * Kind of the {@link Float} cells
+         */
+        private static final byte FLOAT_OBJECT = 11;
+        /**
+         * Kind of the {@link Boolean} cells
+         */
+        private static final byte BOOLEAN_OBJECT = 12;
+        /**
+         * Wrapper class of the boxed cells by kind, null for the other kinds
+         */
+        private static final Class<?>[] WRAPPERS = {null, null, null, null, null, null, Integer.class, Long.class,
+                Short.class, Byte.class, Double.class, Float.class, Boolean.class};
+        /**
+         * Position code of the cells using the default position of their column
+         */
+        private static final byte DEFAULT_POSITION = -1;
+        /**
+         * Positions of the cells
+         */
+        private static final CellPosition[] POSITIONS = CellPosition.values();
+
+        /**
+         * Kind of each cell
+         */
+        @NotNull
+        private byte[] kinds = new byte[16];
+        /**
+         * Position code of each cell
+         */
+        @NotNull
+        private byte[] positions = new byte[16];
+        /**
+         * Bits of the primitive cells
+         */
+        @NotNull
+        private long[] bits = new long[16];
+        /**
+         * Values of the object and header cells, null for the primitive ones
+         */
+        @Nullable
+        private Object[] objects;
+        /**
+         * Count of cells
+         */
+        private int size;
+
+        /**
+         * Make room for a new cell.
+         */
+        private void grow() {
+            if (size == kinds.length) {
+                int capacity = size * 2;
+                kinds = Arrays.copyOf(kinds, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+                bits = Arrays.copyOf(bits, capacity);
+                if (objects != null) {
+                    objects = Arrays.copyOf(objects, capacity);
+                }
+            }
+        }
+
+        /**
+         * Add a primitive cell.
+         *
+         * @param kind     Kind of the cell.
+         * @param value    Bits of the value.
+         * @param position Position code of the cell.
+         */
+        private void addBits(byte kind, long value, byte position) {
+            grow();
+            kinds[size] = kind;
+            positions[size] = position;
+            bits[size] = value;
+            size++;
+        }
+
+        /**
+         * Add an object cell, storing the boxed integer, decimal and boolean values as primitives.
+         *
+         * @param value    Not null value of the cell.
+         * @param position Position code of the cell.
+         * @param isHeader True if the cell is a header one, false otherwise.
+         */
+        private void addObject(@NotNull Object value, byte position, boolean isHeader) {
+            if (!isHeader) {
+                if (value instanceof Integer) {
+                    addBits(INTEGER_OBJECT, (Integer) value, position);
+                    return;
+                }
+                if (value instanceof Long) {
+                    addBits(LONG_OBJECT, (Long) value, position);
+                    return;
+                }
+                if (value instanceof Short) {
+                    addBits(SHORT_OBJECT, (Short) value, position);
+                    return;
+                }
+                if (value instanceof Byte) {
+                    addBits(BYTE_OBJECT, (Byte) value, position);
+                    return;
+                }
+                if (value instanceof Double) {
+                    addBits(DOUBLE_OBJECT, Double.doubleToRawLongBits((Double) value), position);
+                    return;
+                }
+                if (value instanceof Float) {
+                    addBits(FLOAT_OBJECT, Float.floatToRawIntBits((Float) value), position);
+                    return;
+                }
+                if (value instanceof Boolean) {
+                    addBits(BOOLEAN_OBJECT, (Boolean) value ? 1 : 0, position);
+                    return;
+                }
+            }
+            grow();
+            if (objects == null) {
+                objects = new Object[kinds.length];
+            }
+            kinds[size] = isHeader ? HEADER : OBJECT;
+            positions[size] = position;
+            objects[size] = value;
+            size++;
+        }
+
+        /**
+         * Return, for each kind of cell, true if the boxed cells of this kind can be rendered through the primitive
+         * methods of the given printer, false if they have to be boxed again so that it formats them as their class.
+         *
+         * @param printer Not null printer receiving the cells.
+         * @return True for the kinds of boxed cells rendered through the primitive methods.
+         */
+        @NotNull
+        private static boolean[] primitiveKinds(@NotNull ICustomPrinter printer) {
+            boolean[] isPrimitive = new boolean[WRAPPERS.length];
+            if (printer instanceof CustomPrinter) {
+                for (int i = 0; i < WRAPPERS.length; i++) {
+                    isPrimitive[i] = WRAPPERS[i] != null && ((CustomPrinter) printer).printsLikePrimitive(WRAPPERS[i]);
+                }
+            }
+            return isPrimitive;
+        }
+
+        /**
+         * Return the boxed value of a cell of the given kind.
+         *
+         * @param kind  Kind of a boxed cell.
+         * @param value Bits of the value.
+         * @return The boxed value.
+         */
+        @NotNull
+        private static Object box(byte kind, long value) {
+            switch (kind) {
+                case INTEGER_OBJECT:
+                    return (int) value;
+                case LONG_OBJECT:
+                    return value;
+                case SHORT_OBJECT:
+                    return (short) value;
+                case BYTE_OBJECT:
+                    return (byte) value;
+                case DOUBLE_OBJECT:
+                    return Double.longBitsToDouble(value);
+                case FLOAT_OBJECT:
+                    return Float.intBitsToFloat((int) value);
+                case BOOLEAN_OBJECT:
+                default:
+                    return value != 0;
+            }
+        }
+
+        /**
+         * Render a cell into the given printer.
+         *
+         * @param index       Index of the cell.
+         * @param printer     Not null printer receiving the cell.
+         * @param isPrimitive True for the kinds of boxed cells rendered through the primitive methods of the printer.
+         */
+        private void render(int index, @NotNull ICustomPrinter printer, @NotNull boolean[] isPrimitive) {
+            byte code = positions[index];
+            CellPosition position = code == DEFAULT_POSITION ? null : POSITIONS[code];
+            byte kind = kinds[index];
+            if (WRAPPERS[kind] != null && !isPrimitive[kind]) {
+                renderObject(box(kind, bits[index]), position, printer);
+                return;
+            }
+            switch (kind) {
+                case LONG:
+                case INTEGER_OBJECT:
+                case LONG_OBJECT:
+                case SHORT_OBJECT:
+                case BYTE_OBJECT:
+                    if (position == null) {
+                        printer.appendTableValue(bits[index]);
+                    } else {
+                        printer.appendTableValue(bits[index], position);
+                    }
+                    break;
+                case DOUBLE:
+                case DOUBLE_OBJECT:
+                    double value = Double.longBitsToDouble(bits[index]);
+                    if (position == null) {
+                        printer.appendTableValue(value);
+                    } else {
+                        printer.appendTableValue(value, position);
+                    }
+                    break;
+                case BOOLEAN:
+                case BOOLEAN_OBJECT:
+                    if (position == null) {
+                        printer.appendTableValue(bits[index] != 0);
+                    } else {
+                        printer.appendTableValue(bits[index] != 0, position);
+                    }
+                    break;
+                case FLOAT:
+                case FLOAT_OBJECT:
+                    float single = Float.intBitsToFloat((int) bits[index]);
+                    if (position == null) {
+                        printer.appendTableValue(single);
+                    } else {
+                        printer.appendTableValue(single, position);
+                    }
+                    break;
+                case HEADER:
+                    printer.appendTableHeaderValue(objects[index], position);
+                    break;
+                case OBJECT:
+                default:
+                    renderObject(objects[index], position, printer);
+                    break;
+            }
+        }
+
+        /**
+         * Render an object cell into the given printer.
+         *
+         * @param value    Not null value of the cell.
+         * @param position Position of the cell, null for the default position of its column.
+         * @param printer  Not null printer receiving the cell.
+         */
+        private static void renderObject(@NotNull Object value, @Nullable CellPosition position,
+                                         @NotNull ICustomPrinter printer) {
+            if (position == null) {
+                printer.appendTableValue(value);
+            } else {
+                printer.appendTableValue(value, position);
+            }
+        }
+    }
+}
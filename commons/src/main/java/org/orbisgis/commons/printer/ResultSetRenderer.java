@@ -0,0 +1,300 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Renderer of a {@link ResultSet} into a {@link ICustomPrinter} table. The rows are streamed from the
+ * {@link ResultSet} into the printer without being kept in memory, the headers and the column positions come from
+ * the {@link ResultSetMetaData} and the values are read with the getter matching their SQL type.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class ResultSetRenderer {
+
+    /**
+     * Text printed for the SQL NULL values
+     */
+    private static final String NULL = "null";
+    /**
+     * Minimum width of a column, keeping enough room for the truncation ellipsis
+     */
+    private static final int MIN_COLUMN_WIDTH = 3;
+
+    /**
+     * Kinds of getter used to read the values of a column
+     */
+    private static final int OBJECT = 0;
+    private static final int INT = 1;
+    private static final int LONG = 2;
+    private static final int DOUBLE = 3;
+    private static final int BOOLEAN = 4;
+    private static final int FLOAT = 5;
+
+    /**
+     * Not null {@link ICustomPrinter} used for the rendering
+     */
+    @NotNull
+    private final ICustomPrinter printer;
+    /**
+     * Maximum width of a column
+     */
+    private int columnWidth = 20;
+    /**
+     * Fetch size given to the {@link ResultSet}, 0 to keep the driver one
+     */
+    private int fetchSize;
+    /**
+     * Maximum count of rendered rows, negative for no limit
+     */
+    private long maxRows = -1;
+
+    /**
+     * Main constructor.
+     *
+     * @param printer Not null {@link ICustomPrinter} used for the rendering.
+     */
+    public ResultSetRenderer(@NotNull ICustomPrinter printer) {
+        checkNotNull(printer, "The printer should not be null.");
+        this.printer = printer;
+    }
+
+    /**
+     * Set the maximum width of the columns. The width of each column is the display size of the column given by the
+     * {@link ResultSetMetaData} limited to this maximum width.
+     *
+     * @param columnWidth Maximum width in character number of a column.
+     */
+    public void setColumnWidth(int columnWidth) {
+        if (columnWidth < MIN_COLUMN_WIDTH) {
+            throw new IllegalArgumentException("The column width should be at least " + MIN_COLUMN_WIDTH + ".");
+        }
+        this.columnWidth = columnWidth;
+    }
+
+    /**
+     * Set the fetch size given to the {@link ResultSet} before the rendering.
+     *
+     * @param fetchSize Count of rows fetched at once by the driver, 0 to keep the driver one.
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0) {
+            throw new IllegalArgumentException("The fetch size should be positive.");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Set the maximum count of rows rendered.
+     *
+     * @param maxRows Maximum count of rendered rows, negative for no limit.
+     */
+    public void setMaxRows(long maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    /**
+     * Render the rows of the given {@link ResultSet} from its current position. The {@link ResultSet} is not closed.
+     *
+     * @param resultSet Not null {@link ResultSet} to render.
+     * @return The count of rendered rows.
+     * @throws SQLException Exception thrown on reading the {@link ResultSet}.
+     */
+    public long render(@NotNull ResultSet resultSet) throws SQLException {
+        checkNotNull(resultSet, "The result set should not be null.");
+        if (fetchSize > 0) {
+            resultSet.setFetchSize(fetchSize);
+        }
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        int columnCount = metaData.getColumnCount();
+        int[] widths = new int[columnCount];
+        ICustomPrinter.CellPosition[] positions = new ICustomPrinter.CellPosition[columnCount];
+        int[] kinds = new int[columnCount];
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            kinds[i] = kindOf(metaData.getColumnType(i + 1), metaData.getPrecision(i + 1));
+            int displaySize = Math.max(metaData.getColumnDisplaySize(i + 1), labels[i].length());
+            widths[i] = Math.max(MIN_COLUMN_WIDTH, Math.min(columnWidth, displaySize));
+            positions[i] = isNumeric(metaData.getColumnType(i + 1)) ?
+                    ICustomPrinter.CellPosition.RIGHT : ICustomPrinter.CellPosition.LEFT;
+        }
+
+        printer.startTable(widths, positions);
+        printer.appendTableLineSeparator();
+        for (String label : labels) {
+            printer.appendTableHeaderValue(label, ICustomPrinter.CellPosition.CENTER);
+        }
+        printer.appendTableLineSeparator();
+        long count = 0;
+        while ((maxRows < 0 || count < maxRows) && resultSet.next()) {
+            for (int i = 0; i < columnCount; i++) {
+                appendValue(resultSet, i + 1, kinds[i]);
+            }
+            count++;
+        }
+        printer.appendTableLineSeparator();
+        printer.endTable();
+        return count;
+    }
+
+    /**
+     * Read the value of a column of the current row with the given kind of getter and append it to the printer.
+     *
+     * @param resultSet {@link ResultSet} to read.
+     * @param column    Index of the column starting at 1.
+     * @param kind      Kind of getter to use.
+     * @throws SQLException Exception thrown on reading the {@link ResultSet}.
+     */
+    private void appendValue(@NotNull ResultSet resultSet, int column, int kind) throws SQLException {
+        switch (kind) {
+            case INT: {
+                int value = resultSet.getInt(column);
+                if (resultSet.wasNull()) {
+                    printer.appendTableValue(NULL);
+                } else {
+                    printer.appendTableValue(value);
+                }
+                break;
+            }
+            case LONG: {
+                long value = resultSet.getLong(column);
+                if (resultSet.wasNull()) {
+                    printer.appendTableValue(NULL);
+                } else {
+                    printer.appendTableValue(value);
+                }
+                break;
+            }
+            case DOUBLE: {
+                double value = resultSet.getDouble(column);
+                if (resultSet.wasNull()) {
+                    printer.appendTableValue(NULL);
+                } else {
+                    printer.appendTableValue(value);
+                }
+                break;
+            }
+            case FLOAT: {
+                float value = resultSet.getFloat(column);
+                if (resultSet.wasNull()) {
+                    printer.appendTableValue(NULL);
+                } else {
+                    printer.appendTableValue(value);
+                }
+                break;
+            }
+            case BOOLEAN: {
+                boolean value = resultSet.getBoolean(column);
+                if (resultSet.wasNull()) {
+                    printer.appendTableValue(NULL);
+                } else {
+                    printer.appendTableValue(value);
+                }
+                break;
+            }
+            case OBJECT:
+            default: {
+                Object value = resultSet.getObject(column);
+                printer.appendTableValue(value == null ? NULL : value);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Return the kind of getter used to read the values of the given SQL type.
+     *
+     * @param sqlType   SQL type from {@link Types}.
+     * @param precision Precision of the column, the count of bits for the {@link Types#BIT} columns.
+     * @return The kind of getter.
+     */
+    private static int kindOf(int sqlType, int precision) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return INT;
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+                return FLOAT;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.BIT:
+                //Only a single bit is a boolean, the wider bit strings are printed as objects
+                return precision <= 1 ? BOOLEAN : OBJECT;
+            case Types.BOOLEAN:
+                return BOOLEAN;
+            default:
+                return OBJECT;
+        }
+    }
+
+    /**
+     * Return true if the given SQL type is a numeric one, false otherwise.
+     *
+     * @param sqlType SQL type from {@link Types}.
+     * @return True if the type is numeric, false otherwise.
+     */
+    private static boolean isNumeric(int sqlType) {
+        switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
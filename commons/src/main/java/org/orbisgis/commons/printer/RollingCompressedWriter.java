@@ -0,0 +1,200 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link Writer} splitting the written characters into rolling compressed parts. Once a part has received
+ * {@code partSize} characters, the next one is started after the following line feed, so that each part only contains
+ * whole lines and can be decompressed independently. The parts are named {@code name.00001.gz},
+ * {@code name.00002.gz}... in the given directory.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class RollingCompressedWriter extends Writer {
+
+    /**
+     * {@link CompressedOutput} opening the parts
+     */
+    @NotNull
+    private final CompressedOutput output;
+    /**
+     * Directory containing the parts
+     */
+    @NotNull
+    private final Path directory;
+    /**
+     * Base name of the parts
+     */
+    @NotNull
+    private final String name;
+    /**
+     * Count of characters after which the part is rolled on the next line feed
+     */
+    private final long partSize;
+    /**
+     * Paths of the parts already started
+     */
+    @NotNull
+    private final List<Path> parts = new ArrayList<>();
+    /**
+     * {@link Writer} of the current part, null if no part is opened
+     */
+    @Nullable
+    private Writer current;
+    /**
+     * Count of characters written into the current part
+     */
+    private long count;
+    /**
+     * True if the writer has been closed, false otherwise
+     */
+    private boolean isClosed;
+
+    /**
+     * Constructor.
+     *
+     * @param output    Not null {@link CompressedOutput} opening the parts.
+     * @param directory Not null directory containing the parts.
+     * @param name      Not null base name of the parts.
+     * @param partSize  Strictly positive count of characters after which the part is rolled on the next line feed.
+     */
+    public RollingCompressedWriter(@NotNull CompressedOutput output, @NotNull Path directory, @NotNull String name,
+                                   long partSize) {
+        checkNotNull(output, "The compressed output should not be null.");
+        checkNotNull(directory, "The directory should not be null.");
+        checkNotNull(name, "The name of the parts should not be null.");
+        if (partSize <= 0) {
+            throw new IllegalArgumentException("The part size should be strictly positive.");
+        }
+        this.output = output;
+        this.directory = directory;
+        this.name = name;
+        this.partSize = partSize;
+    }
+
+    /**
+     * Return the paths of the parts started so far, in writing order.
+     *
+     * @return The unmodifiable list of the part paths.
+     */
+    @NotNull
+    public List<Path> getParts() {
+        return Collections.unmodifiableList(parts);
+    }
+
+    /**
+     * Return the {@link Writer} of the current part, opening a new part if needed.
+     *
+     * @return The {@link Writer} of the current part.
+     * @throws IOException Exception thrown if the writer is closed or if the part can not be opened.
+     */
+    @NotNull
+    private Writer current() throws IOException {
+        if (isClosed) {
+            throw new IOException("The writer is closed.");
+        }
+        if (current == null) {
+            Path part = directory.resolve(String.format("%s.%05d%s", name, parts.size() + 1,
+                    output.getFormat().getExtension()));
+            try {
+                current = output.writer(part);
+            } catch (UncheckedIOException e) {
+                //Rethrown as the checked exception declared by the Writer methods
+                throw e.getCause();
+            }
+            parts.add(part);
+            count = 0;
+        }
+        return current;
+    }
+
+    @Override
+    public void write(@NotNull char[] chars, int offset, int length) throws IOException {
+        int end = offset + length;
+        while (offset < end) {
+            Writer writer = current();
+            int rollIndex = -1;
+            if (count + (end - offset) > partSize) {
+                for (int i = offset + (int) Math.max(0, partSize - count - 1); i < end; i++) {
+                    if (chars[i] == '\n') {
+                        rollIndex = i + 1;
+                        break;
+                    }
+                }
+            }
+            if (rollIndex == -1) {
+                writer.write(chars, offset, end - offset);
+                count += end - offset;
+                return;
+            }
+            writer.write(chars, offset, rollIndex - offset);
+            writer.close();
+            current = null;
+            offset = rollIndex;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (current != null) {
+            current.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        isClosed = true;
+    }
+}
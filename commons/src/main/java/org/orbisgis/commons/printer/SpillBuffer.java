@@ -0,0 +1,522 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.apache.commons.io.FileUtils;
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * Character buffer kept on the heap until its length reaches a threshold, then spilled into a memory-mapped temporary
+ * file, so that huge outputs do not exhaust the heap. It is meant to be used as the sink of a {@link CustomPrinter} :
+ * <pre>{@code
+ * try (SpillBuffer buffer = new SpillBuffer(1 << 24)) {
+ *     Ascii ascii = new Ascii(buffer, 65536);
+ *     ...
+ *     ascii.flush();
+ *     buffer.writeTo(channel);
+ * }
+ * }</pre>
+ * The temporary file is created in the temporary directory given by commons-io and deleted on {@link #close()}. The
+ * content can be read with {@link #writeTo(Appendable)}, {@link #writeTo(WritableByteChannel)} or as a
+ * {@link CharSequence}, and with {@link #toString()} as long as it fits in a {@link String}.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class SpillBuffer implements Appendable, CharSequence, Closeable {
+
+    /**
+     * Default count of characters of a mapped region of the temporary file
+     */
+    private static final int DEFAULT_REGION_SIZE = 1 << 24;
+    /**
+     * Size of the buffers used for the copies
+     */
+    private static final int TRANSFER_SIZE = 8192;
+
+    /**
+     * Length from which the content is spilled into the temporary file
+     */
+    private final long threshold;
+    /**
+     * Count of characters of a mapped region of the temporary file
+     */
+    private final int regionSize;
+    /**
+     * Content kept on the heap, null once spilled
+     */
+    @Nullable
+    private StringBuilder heap = new StringBuilder();
+    /**
+     * Temporary file containing the spilled content, null if not spilled
+     */
+    @Nullable
+    private File file;
+    /**
+     * Channel of the temporary file, null if not spilled
+     */
+    @Nullable
+    private FileChannel channel;
+    /**
+     * Mapped regions of the temporary file, each one positioned after its last written character
+     */
+    @NotNull
+    private final List<CharBuffer> regions = new ArrayList<>();
+    /**
+     * Buffer used for the copies
+     */
+    @Nullable
+    private char[] transferBuffer;
+    /**
+     * Count of characters contained by the buffer
+     */
+    private long length;
+    /**
+     * True if the buffer has been closed, false otherwise
+     */
+    private boolean isClosed;
+
+    /**
+     * Main constructor.
+     *
+     * @param threshold Positive count of characters from which the content is spilled into a temporary file.
+     */
+    public SpillBuffer(long threshold) {
+        this(threshold, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Constructor with the size of the mapped regions.
+     *
+     * @param threshold  Positive count of characters from which the content is spilled into a temporary file.
+     * @param regionSize Strictly positive count of characters of a mapped region of the temporary file.
+     */
+    SpillBuffer(long threshold, int regionSize) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("The spill threshold should be positive.");
+        }
+        if (regionSize <= 0 || regionSize > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("The region size should be strictly positive and map less than 2GB.");
+        }
+        this.threshold = threshold;
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * Return true if the content has been spilled into the temporary file, false otherwise.
+     *
+     * @return True if the content has been spilled.
+     */
+    public boolean isSpilled() {
+        return heap == null;
+    }
+
+    /**
+     * Return the count of characters contained by the buffer.
+     *
+     * @return The count of characters.
+     */
+    public long size() {
+        return length;
+    }
+
+    /**
+     * Throw an exception if the buffer is closed.
+     */
+    private void checkOpen() {
+        if (isClosed) {
+            throw new IllegalStateException("The spill buffer is closed.");
+        }
+    }
+
+    /**
+     * Return the buffer used for the copies.
+     *
+     * @return The buffer used for the copies.
+     */
+    @NotNull
+    private char[] transferBuffer() {
+        if (transferBuffer == null) {
+            transferBuffer = new char[TRANSFER_SIZE];
+        }
+        return transferBuffer;
+    }
+
+    @NotNull
+    @Override
+    public SpillBuffer append(@Nullable CharSequence csq) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        return append(sequence, 0, sequence.length());
+    }
+
+    @NotNull
+    @Override
+    public SpillBuffer append(@Nullable CharSequence csq, int start, int end) throws IOException {
+        checkOpen();
+        CharSequence sequence = csq == null ? "null" : csq;
+        if (start < 0 || start > end || end > sequence.length()) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + "[.");
+        }
+        if (heap != null && length + (end - start) > threshold) {
+            spill();
+        }
+        if (heap != null) {
+            heap.append(sequence, start, end);
+        } else {
+            char[] chars = transferBuffer();
+            for (int i = start; i < end; i += chars.length) {
+                int chunkEnd = Math.min(end, i + chars.length);
+                if (sequence instanceof String) {
+                    ((String) sequence).getChars(i, chunkEnd, chars, 0);
+                } else if (sequence instanceof StringBuilder) {
+                    ((StringBuilder) sequence).getChars(i, chunkEnd, chars, 0);
+                } else {
+                    for (int j = i; j < chunkEnd; j++) {
+                        chars[j - i] = sequence.charAt(j);
+                    }
+                }
+                put(chars, chunkEnd - i);
+            }
+        }
+        length += end - start;
+        return this;
+    }
+
+    @NotNull
+    @Override
+    public SpillBuffer append(char c) throws IOException {
+        checkOpen();
+        if (heap != null && length + 1 > threshold) {
+            spill();
+        }
+        if (heap != null) {
+            heap.append(c);
+        } else {
+            char[] chars = transferBuffer();
+            chars[0] = c;
+            put(chars, 1);
+        }
+        length++;
+        return this;
+    }
+
+    /**
+     * Move the heap content into the temporary file. The heap content is only dropped once fully written into the
+     * file, so it is kept if the spill fails.
+     *
+     * @throws IOException Exception thrown on the creation or the mapping of the temporary file.
+     */
+    private void spill() throws IOException {
+        try {
+            file = Files.createTempFile(FileUtils.getTempDirectory().toPath(), "printer-", ".spill").toFile();
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            char[] chars = transferBuffer();
+            for (int i = 0; i < heap.length(); i += chars.length) {
+                int chunkEnd = Math.min(heap.length(), i + chars.length);
+                heap.getChars(i, chunkEnd, chars, 0);
+                put(chars, chunkEnd - i);
+            }
+        } catch (IOException | RuntimeException e) {
+            regions.clear();
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                channel = null;
+            }
+            if (file != null) {
+                FileUtils.deleteQuietly(file);
+                file = null;
+            }
+            throw e;
+        }
+        heap = null;
+    }
+
+    /**
+     * Write characters into the mapped regions, mapping new regions when needed.
+     *
+     * @param chars Characters to write.
+     * @param count Count of characters to write.
+     * @throws IOException Exception thrown on the mapping of a region.
+     */
+    private void put(@NotNull char[] chars, int count) throws IOException {
+        int offset = 0;
+        while (offset < count) {
+            CharBuffer region = regions.isEmpty() ? null : regions.get(regions.size() - 1);
+            if (region == null || !region.hasRemaining()) {
+                long position = (long) regions.size() * regionSize * 2;
+                region = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) regionSize * 2).asCharBuffer();
+                regions.add(region);
+            }
+            int n = Math.min(count - offset, region.remaining());
+            region.put(chars, offset, n);
+            offset += n;
+        }
+    }
+
+    /**
+     * Return a read-only view of the written part of a region.
+     *
+     * @param index Index of the region.
+     * @return The view of the region.
+     */
+    @NotNull
+    private CharBuffer region(int index) {
+        CharBuffer view = regions.get(index).asReadOnlyBuffer();
+        view.flip();
+        return view;
+    }
+
+    /**
+     * Write the content into the given {@link Appendable} by chunks.
+     *
+     * @param out Not null {@link Appendable} receiving the content.
+     */
+    public void writeTo(@NotNull Appendable out) {
+        checkNotNull(out, "The appendable should not be null.");
+        checkOpen();
+        try {
+            if (heap != null) {
+                for (int i = 0; i < heap.length(); i += TRANSFER_SIZE) {
+                    out.append(heap, i, Math.min(heap.length(), i + TRANSFER_SIZE));
+                }
+                return;
+            }
+            char[] chars = transferBuffer();
+            for (int r = 0; r < regions.size(); r++) {
+                CharBuffer view = region(r);
+                while (view.hasRemaining()) {
+                    int n = Math.min(chars.length, view.remaining());
+                    view.get(chars, 0, n);
+                    if (out instanceof Writer) {
+                        ((Writer) out).write(chars, 0, n);
+                    } else {
+                        out.append(CharBuffer.wrap(chars, 0, n));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the buffer content.", e);
+        }
+    }
+
+    /**
+     * Write the content encoded in UTF-8 into the given channel through a fixed size buffer.
+     *
+     * @param out Not null {@link WritableByteChannel} receiving the content.
+     */
+    public void writeTo(@NotNull WritableByteChannel out) {
+        checkNotNull(out, "The channel should not be null.");
+        checkOpen();
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(TRANSFER_SIZE);
+        try {
+            if (heap != null) {
+                encode(encoder, CharBuffer.wrap(heap), true, bytes, out);
+            } else {
+                //The characters are copied by chunks, the ones left by the encoder (a high surrogate ending a chunk)
+                //being moved at the start of the next chunk
+                char[] chars = transferBuffer();
+                int carry = 0;
+                for (int r = 0; r < regions.size(); r++) {
+                    CharBuffer view = region(r);
+                    while (view.hasRemaining()) {
+                        int n = Math.min(chars.length - carry, view.remaining());
+                        view.get(chars, carry, n);
+                        CharBuffer in = CharBuffer.wrap(chars, 0, carry + n);
+                        encode(encoder, in, false, bytes, out);
+                        carry = in.remaining();
+                        System.arraycopy(chars, in.position(), chars, 0, carry);
+                    }
+                }
+                encode(encoder, CharBuffer.wrap(chars, 0, carry), true, bytes, out);
+            }
+            CoderResult result;
+            do {
+                result = encoder.flush(bytes);
+                writeFully(bytes, out);
+            } while (result.isOverflow());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write the buffer content.", e);
+        }
+    }
+
+    /**
+     * Encode the given characters into the channel.
+     *
+     * @param encoder    Not null UTF-8 encoder.
+     * @param chars      Not null characters to encode.
+     * @param endOfInput True if there are no more characters to encode.
+     * @param bytes      Not null buffer receiving the encoded bytes.
+     * @param out        Not null channel receiving the encoded bytes.
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    private void encode(@NotNull CharsetEncoder encoder, @NotNull CharBuffer chars, boolean endOfInput,
+                        @NotNull ByteBuffer bytes, @NotNull WritableByteChannel out) throws IOException {
+        CoderResult result;
+        do {
+            result = encoder.encode(chars, bytes, endOfInput);
+            writeFully(bytes, out);
+        } while (result.isOverflow());
+    }
+
+    /**
+     * Write the content of the given buffer into the channel, then clear the buffer.
+     *
+     * @param bytes Not null {@link ByteBuffer} to write.
+     * @param out   Not null {@link WritableByteChannel} receiving the bytes.
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    private static void writeFully(@NotNull ByteBuffer bytes, @NotNull WritableByteChannel out) throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            out.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    /**
+     * Return the count of characters contained by the buffer, or {@link Integer#MAX_VALUE} if it does not fit in an
+     * int. Use {@link #size()} to get the exact count.
+     *
+     * @return The count of characters.
+     */
+    @Override
+    public int length() {
+        return (int) Math.min(length, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public char charAt(int index) {
+        checkOpen();
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length + ".");
+        }
+        return heap != null ? heap.charAt(index) : regions.get(index / regionSize).get(index % regionSize);
+    }
+
+    @NotNull
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        checkOpen();
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + "[.");
+        }
+        if (heap != null) {
+            return heap.substring(start, end);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            builder.append(charAt(i));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Return the content of the buffer as a {@link String}.
+     *
+     * @return The content of the buffer.
+     * @throws IllegalStateException Exception thrown if the content is too long for a {@link String}.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        checkOpen();
+        if (heap != null) {
+            return heap.toString();
+        }
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("The buffer content is too long for a String, use writeTo instead.");
+        }
+        StringBuilder builder = new StringBuilder((int) length);
+        writeTo(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Release the content of the buffer and delete the temporary file. Closing an already closed buffer has no effect.
+     *
+     * @throws IOException Exception thrown on closing the temporary file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        heap = null;
+        regions.clear();
+        if (channel != null) {
+            try {
+                channel.close();
+            } finally {
+                if (!FileUtils.deleteQuietly(file) && file.exists()) {
+                    //A mapped file may not be deleted before the garbage collection of its mapping, each registration
+                    //growing the list of the files deleted on exit
+                    FileUtils.forceDeleteOnExit(file);
+                }
+                file = null;
+            }
+        }
+    }
+}
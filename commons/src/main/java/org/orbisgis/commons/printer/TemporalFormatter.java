@@ -0,0 +1,116 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DateTimeException;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link BoundedFormatter} writing the temporal values with a {@link DateTimeFormatter}. The text is streamed into the
+ * writer and the formatters created from a pattern are cached, so no formatter is allocated per value.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class TemporalFormatter implements BoundedFormatter<TemporalAccessor> {
+
+    /**
+     * Cache of the {@link TemporalFormatter} created from a pattern
+     */
+    private static final Map<String, TemporalFormatter> PATTERNS = new ConcurrentHashMap<>();
+
+    /**
+     * Not null {@link DateTimeFormatter} used to format the values
+     */
+    @NotNull
+    private final DateTimeFormatter formatter;
+
+    /**
+     * Main constructor.
+     *
+     * @param formatter Not null {@link DateTimeFormatter} used to format the values.
+     */
+    public TemporalFormatter(@NotNull DateTimeFormatter formatter) {
+        checkNotNull(formatter, "The date time formatter should not be null.");
+        this.formatter = formatter;
+    }
+
+    /**
+     * Return the {@link TemporalFormatter} using the given pattern, as defined by
+     * {@link DateTimeFormatter#ofPattern(String)}. The formatters are cached by pattern.
+     *
+     * @param pattern Not null pattern of the formatter.
+     * @return The {@link TemporalFormatter} using the given pattern.
+     */
+    @NotNull
+    public static TemporalFormatter ofPattern(@NotNull String pattern) {
+        checkNotNull(pattern, "The pattern should not be null.");
+        return PATTERNS.computeIfAbsent(pattern, p -> new TemporalFormatter(DateTimeFormatter.ofPattern(p)));
+    }
+
+    /**
+     * Return the {@link DateTimeFormatter} used to format the values.
+     *
+     * @return The {@link DateTimeFormatter} used to format the values.
+     */
+    @NotNull
+    public DateTimeFormatter getFormatter() {
+        return formatter;
+    }
+
+    @Override
+    public void format(@NotNull TemporalAccessor value, @NotNull Writer out) throws IOException {
+        try {
+            formatter.formatTo(value, out);
+        } catch (DateTimeException e) {
+            //The exceptions of the writer, like the reached limit, are wrapped by the formatter
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
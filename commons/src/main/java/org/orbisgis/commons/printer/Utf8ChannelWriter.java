@@ -0,0 +1,316 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+import org.orbisgis.commons.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link Writer} encoding the characters in UTF-8 straight into a pooled direct {@link ByteBuffer}, which is written
+ * into a channel (file, socket...) each time it is full. Used as the sink of a {@link CustomPrinter}, the printed
+ * characters are encoded once from the transfer buffer of the printer, without intermediate {@link String} or byte
+ * array :
+ * <pre>{@code
+ * try (FileChannel channel = FileChannel.open(path, CREATE, WRITE);
+ *      Utf8ChannelWriter writer = new Utf8ChannelWriter(channel)) {
+ *     Ascii ascii = new Ascii(writer, 65536);
+ *     ...
+ *     ascii.flush();
+ * }
+ * }</pre>
+ * The 7-bit characters, which make most of the table output, are encoded by a fast path. The malformed surrogates are
+ * replaced by {@code '?'}, as done by {@link String#getBytes(java.nio.charset.Charset)}.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class Utf8ChannelWriter extends Writer {
+
+    /**
+     * Pool shared by the writers created without pool
+     */
+    private static final DirectBufferPool SHARED_POOL = new DirectBufferPool();
+
+    /**
+     * Not null channel receiving the encoded bytes
+     */
+    @NotNull
+    private final WritableByteChannel channel;
+    /**
+     * Not null pool of the buffers
+     */
+    @NotNull
+    private final DirectBufferPool pool;
+    /**
+     * Buffer receiving the encoded bytes, null until the first write or after closing
+     */
+    @Nullable
+    private ByteBuffer buffer;
+    /**
+     * Buffer used for the copy of the written strings
+     */
+    @Nullable
+    private char[] chars;
+    /**
+     * High surrogate written at the end of the previous write, 0 if none
+     */
+    private char pendingHighSurrogate;
+    /**
+     * True if the writer has been closed, false otherwise
+     */
+    private boolean isClosed;
+
+    /**
+     * Main constructor.
+     *
+     * @param channel Not null channel receiving the encoded bytes.
+     * @param pool    Not null pool of the direct buffers, which size should be at least 4 bytes.
+     */
+    public Utf8ChannelWriter(@NotNull WritableByteChannel channel, @NotNull DirectBufferPool pool) {
+        checkNotNull(channel, "The channel should not be null.");
+        checkNotNull(pool, "The buffer pool should not be null.");
+        if (pool.getBufferSize() < 4) {
+            throw new IllegalArgumentException("The buffers should contain at least 4 bytes.");
+        }
+        this.channel = channel;
+        this.pool = pool;
+    }
+
+    /**
+     * Constructor using a pool shared by all the writers.
+     *
+     * @param channel Not null channel receiving the encoded bytes.
+     */
+    public Utf8ChannelWriter(@NotNull WritableByteChannel channel) {
+        this(channel, SHARED_POOL);
+    }
+
+    /**
+     * Return the buffer receiving the encoded bytes, acquiring it from the pool if needed.
+     *
+     * @return The buffer receiving the encoded bytes.
+     * @throws IOException Exception thrown if the writer is closed.
+     */
+    @NotNull
+    private ByteBuffer buffer() throws IOException {
+        if (isClosed) {
+            throw new IOException("The writer is closed.");
+        }
+        if (buffer == null) {
+            buffer = pool.acquire();
+        }
+        return buffer;
+    }
+
+    /**
+     * Write the content of the buffer into the channel and clear it.
+     *
+     * @param buffer Not null buffer to write.
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    private void drain(@NotNull ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+        ByteBuffer buffer = buffer();
+        int i = off;
+        int end = off + len;
+        if (pendingHighSurrogate != 0 && i < end) {
+            char high = pendingHighSurrogate;
+            pendingHighSurrogate = 0;
+            if (buffer.remaining() < 4) {
+                drain(buffer);
+            }
+            if (Character.isLowSurrogate(cbuf[i])) {
+                putCodePoint(buffer, Character.toCodePoint(high, cbuf[i]));
+                i++;
+            } else {
+                buffer.put((byte) '?');
+            }
+        }
+        while (i < end) {
+            int asciiEnd = Math.min(end, i + buffer.remaining());
+            while (i < asciiEnd && cbuf[i] < 0x80) {
+                buffer.put((byte) cbuf[i++]);
+            }
+            if (i == end) {
+                break;
+            }
+            if (buffer.remaining() < 4) {
+                drain(buffer);
+                continue;
+            }
+            char c = cbuf[i++];
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                if (i == end) {
+                    pendingHighSurrogate = c;
+                } else if (Character.isLowSurrogate(cbuf[i])) {
+                    putCodePoint(buffer, Character.toCodePoint(c, cbuf[i++]));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else if (Character.isLowSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Put the 4 bytes encoding of a supplementary code point.
+     *
+     * @param buffer    Not null buffer with at least 4 remaining bytes.
+     * @param codePoint Supplementary code point.
+     */
+    private static void putCodePoint(@NotNull ByteBuffer buffer, int codePoint) {
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        write((CharSequence) str, off, off + len);
+    }
+
+    @NotNull
+    @Override
+    public Writer append(@Nullable CharSequence csq) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        write(sequence, 0, sequence.length());
+        return this;
+    }
+
+    @NotNull
+    @Override
+    public Writer append(@Nullable CharSequence csq, int start, int end) throws IOException {
+        CharSequence sequence = csq == null ? "null" : csq;
+        if (start < 0 || start > end || end > sequence.length()) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + "[.");
+        }
+        write(sequence, start, end);
+        return this;
+    }
+
+    /**
+     * Write a range of the given characters, copied by chunks into a reused buffer.
+     *
+     * @param sequence Not null characters to write.
+     * @param start    Index of the first character to write.
+     * @param end      Index following the last character to write.
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    private void write(@NotNull CharSequence sequence, int start, int end) throws IOException {
+        if (chars == null) {
+            chars = new char[1024];
+        }
+        for (int i = start; i < end; i += chars.length) {
+            int chunkEnd = Math.min(end, i + chars.length);
+            if (sequence instanceof String) {
+                ((String) sequence).getChars(i, chunkEnd, chars, 0);
+            } else if (sequence instanceof StringBuilder) {
+                ((StringBuilder) sequence).getChars(i, chunkEnd, chars, 0);
+            } else {
+                for (int j = i; j < chunkEnd; j++) {
+                    chars[j - i] = sequence.charAt(j);
+                }
+            }
+            write(chars, 0, chunkEnd - i);
+        }
+    }
+
+    /**
+     * Write the encoded bytes into the channel. A high surrogate ending the written characters is kept until the
+     * next write.
+     *
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (buffer != null) {
+            drain(buffer);
+        }
+    }
+
+    /**
+     * Write the encoded bytes into the channel, give back the buffer to the pool and close the channel.
+     *
+     * @throws IOException Exception thrown on writing into the channel.
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        try {
+            if (pendingHighSurrogate != 0) {
+                pendingHighSurrogate = 0;
+                write(new char[]{'?'}, 0, 1);
+            }
+            flush();
+        } finally {
+            isClosed = true;
+            if (buffer != null) {
+                pool.release(buffer);
+                buffer = null;
+            }
+            channel.close();
+        }
+    }
+}
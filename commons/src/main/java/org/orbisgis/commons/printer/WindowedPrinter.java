@@ -0,0 +1,352 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2018-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.orbisgis.commons.annotations.NotNull;
+
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.orbisgis.commons.utilities.CheckUtils.checkNotNull;
+
+/**
+ * {@link ICustomPrinter} decorator only printing the first and the last rows of the tables. The head rows, including
+ * the header rows, are directly printed, the last rows are kept in a fixed size ring buffer and the rows in between
+ * are only counted. At the end of the table, a note with the count of omitted rows is printed, followed by the
+ * last rows. The line separators and titles after the head rows are printed with the row following them.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (UBS 2020)
+ */
+public class WindowedPrinter implements ICustomPrinter {
+
+    /**
+     * Not null decorated {@link CustomPrinter}
+     */
+    @NotNull
+    private final CustomPrinter printer;
+    /**
+     * Count of rows printed at the start of a table
+     */
+    private final int head;
+    /**
+     * Count of rows printed at the end of a table
+     */
+    private final int tail;
+    /**
+     * Ring buffer of the last rows, each row being the list of its recorded calls
+     */
+    @NotNull
+    private final Deque<List<Consumer<ICustomPrinter>>> lastRows;
+    /**
+     * Recorded calls of the row currently appended after the head rows
+     */
+    @NotNull
+    private List<Consumer<ICustomPrinter>> currentRow = new ArrayList<>();
+    /**
+     * True if a table is currently drawn, false otherwise
+     */
+    private boolean isDrawingTable;
+    /**
+     * Count of column of the current table
+     */
+    private int columnCount;
+    /**
+     * Index of the current column
+     */
+    private int columnIndex;
+    /**
+     * Count of completed rows of the current table
+     */
+    private long rowCount;
+    /**
+     * Count of omitted rows of the current or last table
+     */
+    private long omittedRowCount;
+
+    /**
+     * Main constructor.
+     *
+     * @param printer Not null decorated {@link CustomPrinter}.
+     * @param head    Count of rows printed at the start of a table.
+     * @param tail    Count of rows printed at the end of a table.
+     */
+    public WindowedPrinter(@NotNull CustomPrinter printer, int head, int tail) {
+        checkNotNull(printer, "The printer should not be null.");
+        if (head < 0 || tail < 0) {
+            throw new IllegalArgumentException("The head and tail row counts should be positive.");
+        }
+        this.printer = printer;
+        this.head = head;
+        this.tail = tail;
+        this.lastRows = new ArrayDeque<>(tail + 1);
+    }
+
+    /**
+     * Return the count of rows omitted in the current or the last table.
+     *
+     * @return The count of omitted rows.
+     */
+    public long getOmittedRowCount() {
+        return omittedRowCount;
+    }
+
+    @Override
+    public void startTable(int columnWidth, int columnCount) {
+        int count = Math.max(columnCount, 0);
+        int[] widths = new int[count];
+        Arrays.fill(widths, columnWidth);
+        CellPosition[] positions = new CellPosition[count];
+        Arrays.fill(positions, CellPosition.LEFT);
+        startTable(widths, positions);
+    }
+
+    @Override
+    public void startTable(@NotNull int[] columnWidths, @NotNull CellPosition[] columnPositions) {
+        printer.startTable(columnWidths, columnPositions);
+        clear();
+        columnCount = columnWidths.length;
+        isDrawingTable = true;
+    }
+
+    @Override
+    public void endTable() {
+        if (isDrawingTable) {
+            if (omittedRowCount > 0) {
+                printer.appendTableNote("... " + omittedRowCount + " rows omitted ...");
+            }
+            for (List<Consumer<ICustomPrinter>> row : lastRows) {
+                replay(row);
+            }
+            replay(currentRow);
+        }
+        lastRows.clear();
+        currentRow.clear();
+        isDrawingTable = false;
+        printer.endTable();
+    }
+
+    /**
+     * Replay the given recorded calls on the decorated printer.
+     *
+     * @param calls Not null recorded calls.
+     */
+    private void replay(@NotNull List<Consumer<ICustomPrinter>> calls) {
+        for (Consumer<ICustomPrinter> call : calls) {
+            call.accept(printer);
+        }
+    }
+
+    /**
+     * Return true if the calls are currently recorded instead of printed, false otherwise.
+     *
+     * @return True if the calls are recorded, false otherwise.
+     */
+    private boolean isRecording() {
+        return isDrawingTable && rowCount >= head;
+    }
+
+    /**
+     * Count a cell appended to the current table and store the current row in the ring buffer once completed.
+     */
+    private void nextCell() {
+        columnIndex++;
+        if (columnIndex < columnCount) {
+            return;
+        }
+        columnIndex = 0;
+        rowCount++;
+        if (rowCount <= head) {
+            return;
+        }
+        List<Consumer<ICustomPrinter>> row = currentRow;
+        if (lastRows.size() == tail) {
+            omittedRowCount++;
+            currentRow = tail == 0 ? row : lastRows.pollFirst();
+            currentRow.clear();
+        } else {
+            currentRow = new ArrayList<>();
+        }
+        if (tail > 0) {
+            lastRows.addLast(row);
+        }
+    }
+
+    /**
+     * Record or print a cell of the current table.
+     *
+     * @param call Not null call appending the cell.
+     */
+    private void appendCell(@NotNull Consumer<ICustomPrinter> call) {
+        if (isRecording()) {
+            currentRow.add(call);
+        } else {
+            call.accept(printer);
+        }
+        nextCell();
+    }
+
+    @Override
+    public void appendTableLineSeparator() {
+        if (isRecording()) {
+            currentRow.add(ICustomPrinter::appendTableLineSeparator);
+        } else {
+            printer.appendTableLineSeparator();
+        }
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (isDrawingTable) {
+            appendCell(p -> p.appendTableValue(value));
+        }
+    }
+
+    @Override
+    public void appendTableValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            appendCell(p -> p.appendTableValue(value, position));
+        }
+    }
+
+    @Override
+    public void appendTableRow(@NotNull Object... values) {
+        CustomPrinter.checkRow(values);
+        for (Object value : values) {
+            appendTableValue(value);
+        }
+    }
+
+    @Override
+    public void appendTableRows(@NotNull Iterable<Object[]> rows) {
+        CustomPrinter.checkRows(rows);
+        for (Object[] row : rows) {
+            appendTableRow(row);
+        }
+    }
+
+    @Override
+    public void appendTableHeaderValue(@NotNull Object value, @NotNull CellPosition position) {
+        checkNotNull(value, "The value to append should not be null.");
+        checkNotNull(position, "The position of the value should not be null.");
+        if (isDrawingTable) {
+            appendCell(p -> p.appendTableHeaderValue(value, position));
+        }
+    }
+
+    @Override
+    public void appendTableTitle(@NotNull Object title) {
+        checkNotNull(title, "The title to append should not be null.");
+        if (isRecording()) {
+            currentRow.add(p -> p.appendTableTitle(title));
+        } else {
+            printer.appendTableTitle(title);
+        }
+    }
+
+    @Override
+    public void appendValue(@NotNull Object value) {
+        checkNotNull(value, "The value to append should not be null.");
+        if (isDrawingTable) {
+            appendTableValue(value);
+        } else {
+            printer.appendValue(value);
+        }
+    }
+
+    /**
+     * Clear the state of the current table.
+     */
+    private void clear() {
+        lastRows.clear();
+        currentRow.clear();
+        isDrawingTable = false;
+        columnIndex = 0;
+        rowCount = 0;
+        omittedRowCount = 0;
+    }
+
+    @Override
+    public void reset() {
+        clear();
+        printer.reset();
+    }
+
+    /**
+     * Flush the decorated printer. The last rows of the current table are kept until its end.
+     */
+    @Override
+    public void flush() {
+        printer.flush();
+    }
+
+    /**
+     * Return the string representation of the data printed by the decorated printer. The last rows of the current
+     * table are not part of it until its end.
+     *
+     * @return The string representation of the printed data.
+     */
+    @NotNull
+    @Override
+    public String toString() {
+        return printer.toString();
+    }
+
+    @NotNull
+    @Override
+    public CharSequence asCharSequence() {
+        return printer.asCharSequence();
+    }
+
+    @Override
+    public void writeTo(@NotNull Appendable out) {
+        printer.writeTo(out);
+    }
+
+    @Override
+    public void writeTo(@NotNull WritableByteChannel channel) {
+        printer.writeTo(channel);
+    }
+}
@@ -38,8 +38,21 @@ package org.orbisgis.commons.printer;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
 
 /**
@@ -91,6 +104,36 @@ class AsciiTest {
         assertEquals("+---+\n", ascii.toString());
     }
 
+    /**
+     * Test the {@link Ascii#startTable(int[], ICustomPrinter.CellPosition[])} method.
+     */
+    @Test
+    void columnLayoutTest() {
+        Ascii ascii = new Ascii();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.startTable(null, new ICustomPrinter.CellPosition[]{LEFT}));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.startTable(new int[]{1}, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.startTable(new int[]{1}, new ICustomPrinter.CellPosition[]{LEFT, RIGHT}));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.startTable(new int[]{1}, new ICustomPrinter.CellPosition[]{null}));
+
+        ascii.startTable(new int[]{3, 6, 5}, new ICustomPrinter.CellPosition[]{LEFT, RIGHT, CENTER});
+        ascii.appendTableLineSeparator();
+        ascii.appendTableRow("a", "b", "c");
+        ascii.appendTableValue("d");
+        ascii.appendTableValue("e", LEFT);
+        ascii.appendTableValue("too long");
+        ascii.appendTableTitle("title");
+        assertEquals("+---+------+-----+\n" +
+                "|a  |     b|  c  |\n" +
+                "|d  |e     |to...|\n" +
+                "+------+\n" +
+                "|title |\n", ascii.toString());
+    }
+
     /**
      * Test the {@link Ascii#appendTableLineSeparator()} method.
      */
@@ -103,6 +146,18 @@ class AsciiTest {
         ascii.startTable(2, 2);
         ascii.appendTableLineSeparator();
         assertEquals("+--+--+\n", ascii.toString());
+        ascii.appendTableLineSeparator();
+        assertEquals("+--+--+\n+--+--+\n", ascii.toString());
+        ascii.endTable();
+
+        ascii = new Ascii();
+        ascii.startTable(4, 3);
+        ascii.appendTableLineSeparator();
+        ascii.endTable();
+        ascii.startTable(1, 2);
+        ascii.appendTableLineSeparator();
+        ascii.appendTableTitle("t");
+        assertEquals("+----+----+----+\n+-+-+\n+-+\n|t|\n", ascii.toString());
     }
 
     /**
@@ -145,6 +200,79 @@ class AsciiTest {
                 "|center    |left      |right     |end too...|\n", ascii.toString());
     }
 
+    /**
+     * Test the appending of primitive values with the
+     * {@link Ascii#appendTableValue(long, ICustomPrinter.CellPosition)},
+     * {@link Ascii#appendTableValue(double, ICustomPrinter.CellPosition)} and
+     * {@link Ascii#appendTableValue(boolean, ICustomPrinter.CellPosition)} methods and their variant without position.
+     */
+    @Test
+    void appendPrimitiveTableValueTest() {
+        Ascii ascii = new Ascii();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableValue(1, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableValue(1L, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableValue(1.0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableValue(true, null));
+
+        ascii.appendTableValue(1);
+        ascii.appendTableValue(1L, LEFT);
+        ascii.appendTableValue(1.5);
+        ascii.appendTableValue(false, RIGHT);
+        assertEquals("", ascii.toString());
+
+        ascii.startTable(10, 4);
+        ascii.appendTableValue(12, RIGHT);
+        ascii.appendTableValue(-123456789L);
+        ascii.appendTableValue(3.5);
+        ascii.appendTableValue(true, CENTER);
+        ascii.appendTableValue(12345678901L);
+        ascii.appendTableValue(-9.87E-5, LEFT);
+        ascii.appendTableValue(false);
+        ascii.appendTableValue(-2, RIGHT);
+        assertEquals("|        12|-123456789|3.5       |   true   |\n" +
+                "|1234567...|-9.87E-5  |false     |        -2|\n", ascii.toString());
+    }
+
+    /**
+     * Test the truncation of long {@link CharSequence} values, which should not be converted into {@link String}.
+     */
+    @Test
+    void truncationTest() {
+        CharSequence longValue = new CharSequence() {
+            @Override
+            public int length() {
+                return 1_000_000;
+            }
+
+            @Override
+            public char charAt(int index) {
+                return 'a';
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return new StringBuilder().append(this, start, end);
+            }
+
+            @Override
+            public String toString() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        Ascii ascii = new Ascii();
+        ascii.startTable(9, 1);
+        ascii.appendTableValue(longValue);
+        ascii.startTable(2, 1);
+        ascii.appendTableValue("abc");
+        assertEquals("|aaaaaa...|\n" +
+                "|..|\n", ascii.toString());
+    }
+
     /**
      * Test the {@link Ascii#appendTableHeaderValue(Object, ICustomPrinter.CellPosition)} method.
      */
@@ -214,4 +342,256 @@ class AsciiTest {
         ascii.appendValue("value");
         assertEquals("value\n|value     |\n", ascii.toString());
     }
+
+    /**
+     * Test the {@link Ascii#appendTableRow(Object...)} and {@link Ascii#appendTableRows(Iterable)} methods.
+     */
+    @Test
+    void appendTableRowTest() {
+        Ascii ascii = new Ascii();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableRow((Object[]) null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableRow("a", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableRows(null));
+
+        ascii.appendTableRow("a", "b");
+        assertEquals("", ascii.toString());
+
+        ascii.startTable(5, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableRows(Collections.singletonList(new Object[]{null})));
+        ascii.appendTableRow("a", "too long");
+        assertEquals("|a    |to...|\n", ascii.toString());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableRow("c", null));
+        assertEquals("|a    |to...|\n", ascii.toString());
+        assertThrows(IllegalArgumentException.class,
+                () -> ascii.appendTableRows(Arrays.asList(new Object[]{"b", 0}, new Object[]{"c", null})));
+        assertEquals("|a    |to...|\n", ascii.toString());
+
+        ascii.appendTableRows(Arrays.asList(new Object[]{"c", 1}, new Object[]{"d", 2.5}));
+        assertEquals("|a    |to...|\n" +
+                "|c    |1    |\n" +
+                "|d    |2.5  |\n", ascii.toString());
+    }
+
+    /**
+     * Test the {@link Ascii#reset()} method.
+     */
+    @Test
+    void resetTest() {
+        Ascii ascii = new Ascii();
+        ascii.startTable(5, 2);
+        ascii.appendTableValue("value");
+        ascii.reset();
+        assertEquals("", ascii.toString());
+        ascii.appendTableValue("ignored");
+        assertEquals("", ascii.toString());
+
+        ascii.startTable(5, 1);
+        ascii.appendTableValue("a");
+        assertEquals("|a    |\n", ascii.toString());
+    }
+
+    /**
+     * Test the {@link Ascii} printer streaming into an {@link Appendable}.
+     */
+    @Test
+    void sinkTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Ascii(null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Ascii(new StringWriter(), -1));
+
+        StringWriter writer = new StringWriter();
+        Ascii ascii = new Ascii(writer, 0);
+        ascii.startTable(5, 2);
+        ascii.appendTableLineSeparator();
+        assertEquals("+-----+-----+\n", writer.toString());
+        assertEquals("", ascii.toString());
+        ascii.appendTableValue("a");
+        assertEquals("+-----+-----+\n", writer.toString());
+        assertEquals("|a    ", ascii.toString());
+        ascii.appendTableValue("b");
+        assertEquals("+-----+-----+\n|a    |b    |\n", writer.toString());
+        assertEquals("", ascii.toString());
+
+        writer = new StringWriter();
+        ascii = new Ascii(writer, 30);
+        ascii.startTable(5, 2);
+        ascii.appendTableLineSeparator();
+        ascii.appendTableValue("a");
+        ascii.appendTableValue("b");
+        assertEquals("", writer.toString());
+        ascii.appendTableValue("c");
+        ascii.appendTableValue("d");
+        assertEquals("+-----+-----+\n|a    |b    |\n|c    |d    |\n", writer.toString());
+        ascii.appendTableLineSeparator();
+        assertEquals("+-----+-----+\n", ascii.toString());
+        ascii.flush();
+        assertEquals("+-----+-----+\n|a    |b    |\n|c    |d    |\n+-----+-----+\n", writer.toString());
+        assertEquals("", ascii.toString());
+
+        StringBuilder sb = new StringBuilder();
+        ascii = new Ascii((Appendable) sb, 0);
+        ascii.appendValue("value");
+        assertEquals("value\n", sb.toString());
+    }
+
+    /**
+     * Test the {@link Ascii#writeTo(Appendable)}, {@link Ascii#writeTo(WritableByteChannel)} and
+     * {@link Ascii#asCharSequence()} methods.
+     */
+    @Test
+    void writeToTest() {
+        Ascii ascii = new Ascii();
+        ascii.startTable(10, 2);
+        for (int i = 0; i < 1000; i++) {
+            ascii.appendTableRow("é" + i, i);
+        }
+        ascii.endTable();
+        String expected = ascii.toString();
+
+        CharSequence view = ascii.asCharSequence();
+        assertEquals(expected.length(), view.length());
+        assertEquals(expected, view.toString());
+        assertEquals(expected.substring(10, 20), view.subSequence(10, 20).toString());
+
+        StringWriter writer = new StringWriter();
+        ascii.writeTo(writer);
+        assertEquals(expected, writer.toString());
+        StringBuilder builder = new StringBuilder("start\n");
+        ascii.writeTo(builder);
+        assertEquals("start\n" + expected, builder.toString());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ascii.writeTo(new PrintStream(out, true, StandardCharsets.UTF_8));
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+
+        out = new ByteArrayOutputStream();
+        ascii.writeTo(Channels.newChannel(out));
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> new Ascii().writeTo((Appendable) null));
+        assertThrows(IllegalArgumentException.class, () -> new Ascii().writeTo((WritableByteChannel) null));
+    }
+
+    /**
+     * Test that the view returned by {@link Ascii#asCharSequence()} reflects the data printed afterwards.
+     */
+    @Test
+    void liveViewTest() {
+        Ascii ascii = new Ascii();
+        ascii.appendValue("abc");
+        CharSequence view = ascii.asCharSequence();
+        assertEquals(4, view.length());
+        ascii.appendValue("def");
+        assertEquals(8, view.length());
+        assertEquals('d', view.charAt(4));
+        assertEquals("abc\ndef\n", view.toString());
+        ascii.reset();
+        assertEquals(0, view.length());
+        assertEquals("", view.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.charAt(0));
+
+        StringWriter writer = new StringWriter();
+        Ascii streaming = new Ascii(writer, 4);
+        CharSequence streamed = streaming.asCharSequence();
+        streaming.appendValue("ab");
+        assertEquals("ab\n", streamed.toString());
+        streaming.appendValue("cd");
+        assertEquals("", streamed.toString());
+        assertEquals("ab\ncd\n", writer.toString());
+    }
+
+    /**
+     * Test the truncation of the output once the output budget is reached.
+     */
+    @Test
+    void outputBudgetTest() {
+        Ascii ascii = new Ascii();
+        ascii.setOutputBudget(50);
+        ascii.startTable(5, 2);
+        ascii.appendTableLineSeparator();
+        for (int i = 0; i < 10; i++) {
+            ascii.appendTableValue("a" + i);
+            ascii.appendTableValue(i);
+        }
+        ascii.endTable();
+        ascii.appendValue("after");
+        assertEquals("+-----+-----+\n" +
+                "|a0   |0    |\n" +
+                "|a1   |1    |\n" +
+                "|... outp...|\n", ascii.toString());
+        assertTrue(ascii.isTruncated());
+
+        ascii.reset();
+        assertFalse(ascii.isTruncated());
+        ascii.setOutputBudget(10);
+        ascii.appendValue("12345");
+        ascii.appendValue("1234567890");
+        ascii.appendValue("12345");
+        assertEquals("12345\n... output truncated ...\n", ascii.toString());
+
+        StringWriter writer = new StringWriter();
+        ascii = new Ascii(writer, 0);
+        ascii.setOutputBudget(20);
+        ascii.appendValue("123456789");
+        ascii.appendValue("123456789");
+        ascii.appendValue("123456789");
+        ascii.flush();
+        assertEquals("123456789\n123456789\n... output truncated ...\n", writer.toString());
+
+        StringBuilder previous = new StringBuilder("previous");
+        ascii = new Ascii(previous);
+        ascii.setOutputBudget(10);
+        ascii.appendValue("123456789");
+        ascii.appendValue("1");
+        assertEquals("previous\n123456789\n... output truncated ...\n", previous.toString());
+        previous = new StringBuilder("previous");
+        ascii = new Ascii(previous);
+        ascii.setOutputBudget(0);
+        ascii.appendValue("1");
+        assertEquals("previous\n... output truncated ...\n", previous.toString());
+
+        AtomicInteger written = new AtomicInteger();
+        ascii = new Ascii();
+        ascii.setFormatter(Number.class, (value, out) -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write('#');
+                written.incrementAndGet();
+            }
+        });
+        ascii.setOutputBudget(10);
+        ascii.appendValue(1);
+        assertEquals("... output truncated ...\n", ascii.toString());
+        assertEquals(11, written.get());
+    }
+
+    /**
+     * Test the rows written from the compiled row template.
+     */
+    @Test
+    void rowTemplateTest() {
+        Ascii ascii = new Ascii();
+        ascii.startTable(new int[]{4, 0, 2}, new ICustomPrinter.CellPosition[]{RIGHT, LEFT, CENTER});
+        ascii.appendTableRow("abcd", "b", "cc");
+        ascii.appendTableValue(new StringBuilder("x"));
+        assertEquals("|abcd||cc|\n|   x", ascii.toString());
+        ascii.appendTableValue("y");
+        ascii.appendTableValue(CharBuffer.wrap("zzz"));
+        ascii.appendTableValue("abcdef", LEFT);
+        ascii.endTable();
+        assertEquals("|abcd||cc|\n|   x||..|\n|a...", ascii.toString());
+
+        ascii.reset();
+        ascii.startTable(3, 2);
+        ascii.appendTableRow("a", "b");
+        ascii.appendTableRow("cde", "");
+        ascii.endTable();
+        assertEquals("|a  |b  |\n|cde|   |\n", ascii.toString());
+    }
 }
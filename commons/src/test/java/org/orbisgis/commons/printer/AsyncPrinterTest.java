@@ -0,0 +1,214 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link AsyncPrinter} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class AsyncPrinterTest {
+
+    /**
+     * Print a table into the given printer.
+     *
+     * @param printer Printer to use.
+     */
+    private static void printTable(ICustomPrinter printer) {
+        printer.startTable(6, 3);
+        printer.appendTableTitle("Title");
+        printer.appendTableLineSeparator();
+        printer.appendTableHeaderValue("id", CENTER);
+        printer.appendTableHeaderValue("name", CENTER);
+        printer.appendTableHeaderValue("value", CENTER);
+        printer.appendTableLineSeparator();
+        for (int i = 0; i < 100; i++) {
+            printer.appendTableValue(i, RIGHT);
+            printer.appendTableValue("name" + i);
+            printer.appendTableRow(i * 0.5);
+        }
+        printer.appendTableLineSeparator();
+        printer.endTable();
+        printer.appendValue("end");
+    }
+
+    /**
+     * Test that the asynchronous printing gives the same output as the direct one.
+     */
+    @Test
+    void printTest() {
+        Ascii expected = new Ascii();
+        printTable(expected);
+
+        AsyncPrinter printer = new AsyncPrinter(new Ascii(), 4);
+        printTable(printer);
+        assertEquals(expected.toString(), printer.toString());
+        printer.reset();
+        assertEquals("", printer.toString());
+        printer.close();
+        printer.close();
+        assertThrows(IllegalStateException.class, () -> printer.appendValue("value"));
+
+        StringWriter writer = new StringWriter();
+        try (AsyncPrinter sinkPrinter = new AsyncPrinter(new Ascii(writer, 0), 1)) {
+            printTable(sinkPrinter);
+        }
+        assertEquals(expected.toString(), writer.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> new AsyncPrinter(null, 4));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncPrinter(new Ascii(), 0));
+    }
+
+    /**
+     * Test that the queued mutable values are copied and that the returned {@link CharSequence} is a snapshot.
+     */
+    @Test
+    void copyTest() {
+        try (AsyncPrinter printer = new AsyncPrinter(new Ascii(), 16)) {
+            StringBuilder buffer = new StringBuilder();
+            printer.startTable(3, 2);
+            for (int i = 0; i < 4; i++) {
+                buffer.setLength(0);
+                buffer.append(i);
+                printer.appendTableValue(buffer);
+            }
+            printer.endTable();
+            buffer.setLength(0);
+            buffer.append("end");
+            printer.appendValue(buffer);
+            buffer.setLength(0);
+            CharSequence text = printer.asCharSequence();
+            assertEquals("|0  |1  |\n|2  |3  |\nend\n", text.toString());
+            printer.appendValue("after");
+            assertEquals("|0  |1  |\n|2  |3  |\nend\n", text.toString());
+        }
+    }
+
+    /**
+     * Test the appending of rows by several producer threads.
+     */
+    @Test
+    void producersTest() throws InterruptedException {
+        AsyncPrinter printer = new AsyncPrinter(new Csv(), 8);
+        printer.startTable(10, 2);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    printer.appendTableRow(thread, i);
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        printer.endTable();
+        String[] lines = printer.toString().split("\n");
+        assertEquals(1000, lines.length);
+        int[] next = new int[4];
+        for (String line : lines) {
+            String[] values = line.split(",");
+            int thread = Integer.parseInt(values[0]);
+            assertEquals(next[thread]++, Integer.parseInt(values[1]));
+        }
+        printer.close();
+    }
+
+    /**
+     * Test the propagation of the exceptions thrown by the decorated printer.
+     */
+    @Test
+    void failureTest() {
+        Ascii failing = new Ascii() {
+            @Override
+            public void appendValue(Object value) {
+                throw new UnsupportedOperationException("failure");
+            }
+        };
+        AsyncPrinter printer = new AsyncPrinter(failing, 2);
+        printer.appendValue("value");
+        IllegalStateException e = assertThrows(IllegalStateException.class, printer::flush);
+        assertEquals("failure", e.getCause().getMessage());
+        assertThrows(IllegalStateException.class, () -> printer.appendValue("value"));
+        assertThrows(IllegalStateException.class, printer::close);
+        printer.close();
+    }
+
+    /**
+     * Test that an error thrown by the decorated printer does not block the producers.
+     */
+    @Test
+    void errorTest() {
+        Ascii failing = new Ascii() {
+            @Override
+            public void appendValue(Object value) {
+                throw new StackOverflowError("error");
+            }
+        };
+        AsyncPrinter printer = new AsyncPrinter(failing, 1);
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            printer.appendValue("value");
+            IllegalStateException e = assertThrows(IllegalStateException.class, () -> {
+                for (int i = 0; i < 100; i++) {
+                    printer.appendValue("value");
+                }
+            });
+            assertTrue(e.getCause() instanceof StackOverflowError);
+            e = assertThrows(IllegalStateException.class, printer::toString);
+            assertEquals("error", e.getCause().getMessage());
+            assertThrows(IllegalStateException.class, printer::close);
+        });
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link AutoFitPrinter} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class AutoFitPrinterTest {
+
+    /**
+     * Test the building of a {@link AutoFitPrinter}.
+     */
+    @Test
+    void buildTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AutoFitPrinter(null, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AutoFitPrinter(new Ascii(), 0));
+    }
+
+    /**
+     * Test the fitting of the column widths to the first rows.
+     */
+    @Test
+    void autoFitTest() {
+        AutoFitPrinter printer = new AutoFitPrinter(new Ascii(), 2);
+        printer.appendValue("text");
+        assertEquals("text\n", printer.toString());
+
+        printer.startTable(new int[]{10, 10, 6}, new ICustomPrinter.CellPosition[]{LEFT, RIGHT, CENTER});
+        printer.appendTableLineSeparator();
+        printer.appendTableHeaderValue("name", CENTER);
+        printer.appendTableHeaderValue("value", CENTER);
+        printer.appendTableHeaderValue("c", CENTER);
+        printer.appendTableLineSeparator();
+        assertEquals("text\n", printer.toString());
+        printer.appendTableRow("a", 12, "very long value");
+        assertEquals("text\n" +
+                "+----+-----+------+\n" +
+                "|name|value|  c   |\n" +
+                "+----+-----+------+\n" +
+                "|a   |   12|ver...|\n", printer.toString());
+        printer.appendTableRow("too long name", 123456, "b");
+        printer.endTable();
+        assertEquals("text\n" +
+                "+----+-----+------+\n" +
+                "|name|value|  c   |\n" +
+                "+----+-----+------+\n" +
+                "|a   |   12|ver...|\n" +
+                "|t...|12...|  b   |\n", printer.toString());
+    }
+
+    /**
+     * Test the release of the recorded rows on {@link AutoFitPrinter#endTable()} and
+     * {@link AutoFitPrinter#flush()}.
+     */
+    @Test
+    void releaseTest() {
+        AutoFitPrinter printer = new AutoFitPrinter(new Html(), 100);
+        printer.startTable(10, 2);
+        printer.appendTableTitle("abc");
+        printer.appendTableRow("a", "b");
+        assertEquals("", printer.toString());
+        printer.endTable();
+        assertEquals("<table>\n" +
+                "<caption>abc</caption>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">a</td>\n" +
+                "<td align=\"LEFT\">b</td>\n" +
+                "</tr>\n" +
+                "</table>\n", printer.toString());
+
+        printer = new AutoFitPrinter(new Ascii(), 100);
+        printer.startTable(10, 2);
+        printer.appendTableRow("abcd", "b");
+        printer.flush();
+        printer.appendTableRow("abcdefgh", "c");
+        assertEquals("|abcd|b  |\n|a...|c  |\n", printer.toString());
+    }
+
+    /**
+     * Test that the fitted widths are measured on the values as formatted by the decorated printer.
+     */
+    @Test
+    void formattedWidthTest() {
+        Ascii ascii = new Ascii();
+        ascii.setDoubleFormatter(DoubleFormatter.fixed(1));
+        AutoFitPrinter printer = new AutoFitPrinter(ascii, 2);
+        printer.startTable(new int[]{20, 20, 20}, new ICustomPrinter.CellPosition[]{LEFT, RIGHT, LEFT});
+        printer.appendTableRow(new int[]{1, 2, 3}, 1.23456789, 1.1f);
+        printer.appendTableRow(new int[]{4}, 12.25, "abcd");
+        printer.endTable();
+        assertEquals("|[1, 2, 3]| 1.2|1.1 |\n" +
+                "|[4]      |12.3|abcd|\n", printer.toString());
+
+        printer = new AutoFitPrinter(new Ascii(), 1);
+        printer.startTable(new int[]{5}, new ICustomPrinter.CellPosition[]{LEFT});
+        printer.appendTableValue(new long[1000]);
+        printer.endTable();
+        assertEquals("|[0...|\n", printer.toString());
+    }
+}
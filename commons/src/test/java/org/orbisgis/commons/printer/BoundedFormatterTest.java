@@ -0,0 +1,174 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class dedicated to the {@link BoundedFormatter}, {@link LimitedWriter} and {@link WktFormatter} classes.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class BoundedFormatterTest {
+
+    /**
+     * Build a line string with the given count of points.
+     *
+     * @param count Count of points.
+     * @return The line string.
+     */
+    private static Geometry line(int count) {
+        Coordinate[] coordinates = new Coordinate[count];
+        for (int i = 0; i < count; i++) {
+            coordinates[i] = new Coordinate(i, i * 0.5);
+        }
+        return new GeometryFactory().createLineString(coordinates);
+    }
+
+    /**
+     * Test the {@link LimitedWriter} class.
+     */
+    @Test
+    void limitedWriterTest() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        LimitedWriter writer = new LimitedWriter(builder, 5);
+        writer.write("abc");
+        assertFalse(writer.isLimitReached());
+        IOException e = assertThrows(LimitedWriter.LimitReachedException.class, () -> writer.append("defg"));
+        assertEquals(0, e.getStackTrace().length);
+        assertTrue(writer.isLimitReached());
+        assertEquals("abcde", builder.toString());
+        IOException other = assertThrows(LimitedWriter.LimitReachedException.class, () -> writer.write('f'));
+        e.addSuppressed(new IOException());
+        assertEquals(0, other.getSuppressed().length);
+        assertThrows(LimitedWriter.LimitReachedException.class, () -> writer.write(new char[0], 0, 0));
+
+        writer.reset(2);
+        assertEquals("", builder.toString());
+        writer.write(new char[]{'a', 'b'}, 0, 2);
+        assertThrows(LimitedWriter.LimitReachedException.class, () -> writer.write('c'));
+        assertEquals("ab", builder.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> writer.reset(-1));
+        assertThrows(IllegalArgumentException.class, () -> new LimitedWriter(null, 1));
+    }
+
+    /**
+     * Test the {@link WktFormatter} class and its use by default in the printers.
+     */
+    @Test
+    void wktFormatterTest() throws IOException {
+        Geometry small = line(2);
+        Geometry huge = line(100000);
+
+        StringBuilder builder = new StringBuilder();
+        LimitedWriter writer = new LimitedWriter(builder, 30);
+        new WktFormatter().format(small, writer);
+        assertEquals(small.toString(), builder.toString());
+        writer.reset(30);
+        assertThrows(LimitedWriter.LimitReachedException.class, () -> new WktFormatter().format(huge, writer));
+        assertEquals(huge.toString().substring(0, 30), builder.toString());
+
+        Ascii ascii = new Ascii();
+        ascii.startTable(20, 2);
+        ascii.appendTableValue(small);
+        ascii.appendTableValue(huge);
+        ascii.appendTableTitle(huge);
+        ascii.endTable();
+        Ascii expected = new Ascii();
+        expected.startTable(20, 2);
+        expected.appendTableValue(small.toString());
+        expected.appendTableValue(huge.toString());
+        expected.appendTableTitle(huge.toString());
+        expected.endTable();
+        assertEquals(expected.toString(), ascii.toString());
+
+        Html html = new Html();
+        html.startTable(20, 1);
+        html.appendTableValue(huge);
+        html.endTable();
+        Html expectedHtml = new Html();
+        expectedHtml.startTable(20, 1);
+        expectedHtml.appendTableValue(huge.toString());
+        expectedHtml.endTable();
+        assertEquals(expectedHtml.toString(), html.toString());
+    }
+
+    /**
+     * Test the use of a {@link BoundedFormatter} set on a printer.
+     */
+    @Test
+    void customFormatterTest() {
+        AtomicInteger written = new AtomicInteger();
+        BoundedFormatter<Number> formatter = (value, out) -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write('#');
+                written.incrementAndGet();
+            }
+        };
+        Ascii ascii = new Ascii();
+        ascii.setFormatter(Number.class, formatter);
+        ascii.startTable(5, 2);
+        ascii.appendTableValue(Double.valueOf(1.5));
+        ascii.appendTableValue("text");
+        ascii.endTable();
+        assertEquals("|##...|text |\n", ascii.toString());
+        assertEquals(6, written.get());
+
+        Csv csv = new Csv();
+        csv.setFormatter(Integer.class, (value, out) -> out.append("int:").append(value.toString()));
+        csv.startTable(5, 2);
+        csv.appendTableRow(1, 2L);
+        csv.endTable();
+        assertEquals("int:1,2\n", csv.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> ascii.setFormatter(null, formatter));
+        assertThrows(IllegalArgumentException.class, () -> ascii.setFormatter(Number.class, null));
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.apache.commons.compress.compressors.CompressorStreamFactory;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class dedicated to the {@link CompressedOutput} and {@link RollingCompressedWriter} classes.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class CompressedOutputTest {
+
+    /**
+     * Decompress the given bytes.
+     *
+     * @param bytes Compressed bytes.
+     * @return The decompressed string.
+     */
+    private static String decompress(byte[] bytes) throws Exception {
+        try (InputStream in = new CompressorStreamFactory().createCompressorInputStream(
+                new ByteArrayInputStream(bytes))) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Print a table into a compressed writer.
+     *
+     * @param writer Compressed writer.
+     * @return The printed string.
+     */
+    private static String printTable(Writer writer) throws Exception {
+        Ascii ascii = new Ascii(writer, 16);
+        ascii.startTable(5, 2);
+        for (int i = 0; i < 50; i++) {
+            ascii.appendTableRow(i, "é" + i);
+        }
+        ascii.endTable();
+        ascii.flush();
+        writer.close();
+        Ascii expected = new Ascii();
+        expected.startTable(5, 2);
+        for (int i = 0; i < 50; i++) {
+            expected.appendTableRow(i, "é" + i);
+        }
+        expected.endTable();
+        return expected.toString();
+    }
+
+    /**
+     * Test the printing into a compressed stream with each format.
+     */
+    @Test
+    void formatTest() throws Exception {
+        for (CompressedOutput.Format format : CompressedOutput.Format.values()) {
+            CompressedOutput output = new CompressedOutput(format);
+            output.setLevel(1);
+            output.setBlockSize(32);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            String expected = printTable(output.writer(out));
+            assertTrue(out.size() < expected.length());
+            assertEquals(expected, decompress(out.toByteArray()));
+        }
+    }
+
+    /**
+     * Test the bad parameters of {@link CompressedOutput}.
+     */
+    @Test
+    void badParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> new CompressedOutput(null));
+        CompressedOutput output = new CompressedOutput(CompressedOutput.Format.GZIP);
+        assertThrows(IllegalArgumentException.class, () -> output.setLevel(0));
+        assertThrows(IllegalArgumentException.class, () -> output.setLevel(10));
+        assertThrows(IllegalArgumentException.class, () -> output.setBlockSize(0));
+        assertThrows(IllegalArgumentException.class, () -> output.open(null));
+        new CompressedOutput(CompressedOutput.Format.XZ).setLevel(0);
+        new CompressedOutput(CompressedOutput.Format.ZSTD).setLevel(22);
+    }
+
+    /**
+     * Test the splitting of the output into rolling compressed parts.
+     */
+    @Test
+    void rollingTest(@TempDir Path directory) throws Exception {
+        CompressedOutput output = new CompressedOutput(CompressedOutput.Format.GZIP);
+        RollingCompressedWriter writer = new RollingCompressedWriter(output, directory, "table", 200);
+        String expected = printTable(writer);
+
+        List<Path> parts = writer.getParts();
+        assertTrue(parts.size() > 1);
+        assertEquals(directory.resolve("table.00001.gz"), parts.get(0));
+        StringBuilder builder = new StringBuilder();
+        for (Path part : parts) {
+            String text = decompress(Files.readAllBytes(part));
+            assertTrue(text.endsWith("\n"));
+            builder.append(text);
+        }
+        assertEquals(expected, builder.toString());
+        assertThrows(java.io.IOException.class, () -> writer.write("a"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RollingCompressedWriter(output, directory, "table", 0));
+
+        RollingCompressedWriter missing = new RollingCompressedWriter(output, directory.resolve("missing"), "table", 200);
+        assertThrows(NoSuchFileException.class, () -> missing.write("a"));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class dedicated to the {@link ConcurrentTableBuilder} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class ConcurrentTableBuilderTest {
+
+    /**
+     * Append rows from several threads.
+     *
+     * @param builder Builder receiving the rows.
+     * @param threads Count of threads.
+     * @param rows    Count of rows per thread.
+     */
+    private static void appendRows(ConcurrentTableBuilder builder, int threads, int rows)
+            throws InterruptedException {
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < rows; i++) {
+                    builder.appendTableRow(thread, i);
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+    }
+
+    /**
+     * Test the merge of the rows in arrival order.
+     */
+    @Test
+    void arrivalOrderTest() throws InterruptedException {
+        Csv csv = new Csv();
+        csv.startTable(10, 2);
+        ConcurrentTableBuilder builder = new ConcurrentTableBuilder(csv, 2);
+        builder.appendTableRow("main", -1);
+        appendRows(builder, 4, 500);
+        assertEquals(2001, builder.getRowCount());
+        builder.endTable();
+        assertEquals(0, builder.getRowCount());
+
+        String[] lines = csv.toString().split("\n");
+        assertEquals(2001, lines.length);
+        assertEquals("main,-1", lines[0]);
+        int[] next = new int[4];
+        for (int i = 1; i < lines.length; i++) {
+            String[] values = lines[i].split(",");
+            int thread = Integer.parseInt(values[0]);
+            assertEquals(next[thread]++, Integer.parseInt(values[1]));
+        }
+    }
+
+    /**
+     * Test the merge of the rows in a given order.
+     */
+    @Test
+    void comparatorOrderTest() throws InterruptedException {
+        Csv csv = new Csv();
+        csv.startTable(10, 2);
+        ConcurrentTableBuilder builder = new ConcurrentTableBuilder(csv, 2);
+        appendRows(builder, 3, 2);
+        builder.endTable(Comparator.comparing(row -> (Integer) row[1]));
+        String[] lines = csv.toString().split("\n");
+        for (int i = 0; i < 3; i++) {
+            assertEquals("0", lines[i].split(",")[1]);
+            assertEquals("1", lines[i + 3].split(",")[1]);
+        }
+
+        csv.reset();
+        csv.startTable(10, 2);
+        builder.appendTableRow("b", 1);
+        builder.appendTableRow("a", 2);
+        builder.endTable(Comparator.comparing(row -> (String) row[0]));
+        assertEquals("a,2\nb,1\n", csv.toString());
+    }
+
+    /**
+     * Test the bad parameters of {@link ConcurrentTableBuilder}.
+     */
+    @Test
+    void badParametersTest() {
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentTableBuilder(null, 2));
+        assertThrows(IllegalArgumentException.class, () -> new ConcurrentTableBuilder(new Ascii(), 0));
+        ConcurrentTableBuilder builder = new ConcurrentTableBuilder(new Ascii(), 2);
+        assertThrows(IllegalArgumentException.class, () -> builder.appendTableRow("a"));
+        assertThrows(IllegalArgumentException.class, () -> builder.appendTableRow("a", null));
+        assertThrows(IllegalArgumentException.class, () -> builder.appendTableRow((Object[]) null));
+    }
+}
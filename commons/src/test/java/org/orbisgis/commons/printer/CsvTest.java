@@ -0,0 +1,178 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link Csv} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class CsvTest {
+
+    /**
+     * Test the building of a {@link Csv} printer.
+     */
+    @Test
+    void buildTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Csv((StringBuilder) null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Csv(null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Csv().setSeparator('"'));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Csv().setSeparator('\n'));
+
+        StringBuilder sb = new StringBuilder("##HEADER##\n");
+        Csv csv = new Csv(sb);
+        assertEquals("##HEADER##\n", csv.toString());
+    }
+
+    /**
+     * Test the printing of a table.
+     */
+    @Test
+    void tableTest() {
+        Csv csv = new Csv();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> csv.appendTableValue(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> csv.appendTableValue("value", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> csv.appendTableHeaderValue(null, LEFT));
+        assertThrows(IllegalArgumentException.class,
+                () -> csv.appendTableTitle(null));
+
+        csv.appendTableValue("ignored");
+        assertEquals("", csv.toString());
+
+        csv.startTable(3, 3);
+        csv.appendTableTitle("title");
+        csv.appendTableLineSeparator();
+        csv.appendTableHeaderValue("id", CENTER);
+        csv.appendTableHeaderValue("name", CENTER);
+        csv.appendTableHeaderValue("value", CENTER);
+        csv.appendTableValue(1);
+        csv.appendTableValue("not truncated", RIGHT);
+        csv.appendTableValue(1.5);
+        csv.appendTableRow(2L, "a,b", true);
+        assertThrows(IllegalArgumentException.class,
+                () -> csv.appendTableRows(Arrays.asList(new Object[]{0, "b", "c"}, new Object[]{0, null, "c"})));
+        csv.appendTableRows(Arrays.asList(new Object[]{3, "say \"hi\"", "x"}, new Object[]{4, "multi\nline", ""}));
+        csv.endTable();
+        assertEquals("id,name,value\n" +
+                "1,not truncated,1.5\n" +
+                "2,\"a,b\",true\n" +
+                "3,\"say \"\"hi\"\"\",x\n" +
+                "4,\"multi\nline\",\n", csv.toString());
+    }
+
+    /**
+     * Test the {@link Csv#setSeparator(char)} and {@link Csv#appendValue(Object)} methods.
+     */
+    @Test
+    void separatorValueTest() {
+        Csv csv = new Csv();
+        csv.setSeparator(';');
+        csv.appendValue("a;b");
+        csv.appendValue("a,b");
+        csv.startTable(1, 2);
+        csv.appendValue("c;d");
+        csv.appendValue("\"");
+        assertEquals("\"a;b\"\na,b\n\"c;d\";\"\"\"\"\n", csv.toString());
+    }
+
+    /**
+     * Test the {@link Csv} printer streaming into an {@link Appendable}.
+     */
+    @Test
+    void sinkTest() {
+        StringWriter writer = new StringWriter();
+        Csv csv = new Csv(writer, 0);
+        csv.startTable(1, 2);
+        csv.appendTableValue("a");
+        assertEquals("", writer.toString());
+        csv.appendTableValue("b");
+        assertEquals("a,b\n", writer.toString());
+        csv.endTable();
+        assertEquals("", csv.toString());
+    }
+
+    /**
+     * Test the truncation of the output once the output budget is reached, without truncation notice.
+     */
+    @Test
+    void outputBudgetTest() {
+        Csv csv = new Csv();
+        csv.setOutputBudget(10);
+        csv.startTable(5, 2);
+        for (int i = 0; i < 10; i++) {
+            csv.appendTableValue("a" + i);
+            csv.appendTableValue(i);
+        }
+        csv.endTable();
+        csv.appendValue("after");
+        assertEquals("a0,0\na1,1\n", csv.toString());
+        assertTrue(csv.isTruncated());
+
+        AtomicInteger written = new AtomicInteger();
+        csv = new Csv();
+        csv.setFormatter(Number.class, (value, out) -> {
+            for (int i = 0; i < 1000; i++) {
+                out.write('#');
+                written.incrementAndGet();
+            }
+        });
+        csv.setOutputBudget(10);
+        csv.appendValue(1);
+        assertEquals("", csv.toString());
+        assertEquals(11, written.get());
+    }
+}
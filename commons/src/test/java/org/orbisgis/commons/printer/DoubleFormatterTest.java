@@ -0,0 +1,195 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class dedicated to the {@link DoubleFormatter} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class DoubleFormatterTest {
+
+    /**
+     * Format the given value with the given formatter.
+     *
+     * @param formatter Formatter to use.
+     * @param value     Value to format.
+     * @return The text of the value.
+     */
+    private static String format(DoubleFormatter formatter, double value) {
+        StringBuilder builder = new StringBuilder();
+        formatter.appendTo(value, builder);
+        return builder.toString();
+    }
+
+    /**
+     * Test the fixed formatting.
+     */
+    @Test
+    void fixedTest() {
+        DoubleFormatter two = DoubleFormatter.fixed(2);
+        assertSame(two, DoubleFormatter.fixed(2));
+        assertFalse(two.isShortest());
+        assertEquals(2, two.getDecimals());
+        assertEquals("3.14", format(two, Math.PI));
+        assertEquals("-3.14", format(two, -Math.PI));
+        assertEquals("0.05", format(two, 0.05));
+        assertEquals("1.00", format(two, 0.999));
+        assertEquals("12.30", format(two, 12.3));
+        assertEquals("0.00", format(two, 0));
+        assertEquals("-0.00", format(two, -0.001));
+        assertEquals("4", format(DoubleFormatter.fixed(0), 3.5));
+        assertEquals("0.000001", format(DoubleFormatter.fixed(6), 1e-6));
+        assertEquals("1" + "0".repeat(20) + ".00", format(two, 1e20));
+        assertEquals("NaN", format(two, Double.NaN));
+        assertEquals("-Infinity", format(two, Double.NEGATIVE_INFINITY));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            double parsed = Double.parseDouble(format(DoubleFormatter.fixed(3), value));
+            assertTrue(Math.abs(parsed - value) <= 0.0005 + Math.ulp(value) * 2, value + " " + parsed);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> DoubleFormatter.fixed(-1));
+        assertThrows(IllegalArgumentException.class, () -> DoubleFormatter.fixed(DoubleFormatter.MAX_DECIMALS + 1));
+    }
+
+    /**
+     * Test the rounding of the values close to a midpoint, which should match the one of {@link String#format}.
+     */
+    @Test
+    void midpointTest() {
+        DoubleFormatter three = DoubleFormatter.fixed(3);
+        assertEquals("365.306", format(three, 365.30649999999997));
+        assertEquals("522.002", format(three, 522.0015));
+        assertEquals("-522.002", format(three, -522.0015));
+        assertEquals("1.006", format(three, 1.0055));
+        assertEquals("0.13", format(DoubleFormatter.fixed(2), 0.125));
+        assertEquals("3", format(DoubleFormatter.fixed(0), 2.5));
+        assertEquals("1.01", format(DoubleFormatter.fixed(2), 1.005));
+        StringBuilder builder = new StringBuilder();
+        assertTrue(three.appendRightAligned(365.30649999999997, builder, 8));
+        assertTrue(three.appendRightAligned(522.0015, builder, 8));
+        assertEquals(" 365.306 522.002", builder.toString());
+
+        Random random = new Random(42);
+        for (int i = 0; i < 200000; i++) {
+            int decimals = random.nextInt(7);
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12));
+            if (i % 2 == 0) {
+                //Values written with one decimal more than the formatter, ending with a 5
+                long digits = (long) (value * Math.pow(10, decimals)) * 10 + 5;
+                value = digits / Math.pow(10, decimals + 1);
+            }
+            String expected = String.format(Locale.ROOT, "%." + decimals + "f", value);
+            assertEquals(expected, format(DoubleFormatter.fixed(decimals), value), Double.toString(value));
+        }
+    }
+
+    /**
+     * Test the shortest formatting.
+     */
+    @Test
+    void shortestTest() {
+        DoubleFormatter shortest = DoubleFormatter.shortest();
+        assertTrue(shortest.isShortest());
+        assertEquals("0.1", format(shortest, 0.1));
+        assertEquals("0.3", format(shortest, 0.3));
+        assertEquals("0.30000000000000004", format(shortest, 0.1 + 0.2));
+        assertEquals("100.0", format(shortest, 100));
+        assertEquals("-1.5", format(shortest, -1.5));
+        assertEquals("0.0", format(shortest, 0));
+        assertEquals("-0.0", format(shortest, -0.0));
+        assertEquals("1.0E-5", format(shortest, 1e-5));
+        assertEquals("1.2345678E7", format(shortest, 12345678));
+        assertEquals("Infinity", format(shortest, Double.POSITIVE_INFINITY));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(20) - 6);
+            String text = format(shortest, value);
+            assertEquals(value, Double.parseDouble(text), text);
+            assertTrue(text.length() <= Double.toString(value).length(), text);
+        }
+    }
+
+    /**
+     * Test the right alignment and the use of the formatter by the printers.
+     */
+    @Test
+    void printerTest() {
+        StringBuilder builder = new StringBuilder();
+        assertTrue(DoubleFormatter.fixed(2).appendRightAligned(-3.14159, builder, 8));
+        assertEquals("   -3.14", builder.toString());
+        assertFalse(DoubleFormatter.fixed(2).appendRightAligned(12345.678, builder, 7));
+        assertTrue(DoubleFormatter.shortest().appendRightAligned(Double.NaN, builder, 4));
+        assertTrue(DoubleFormatter.fixed(1).appendRightAligned(1e20, builder, 40));
+        assertEquals("   -3.14 NaN" + " ".repeat(17) + "1" + "0".repeat(20) + ".0", builder.toString());
+
+        Ascii ascii = new Ascii();
+        ascii.setDoubleFormatter(DoubleFormatter.fixed(2));
+        ascii.startTable(7, 3);
+        ascii.appendTableValue(Math.PI, ICustomPrinter.CellPosition.RIGHT);
+        ascii.appendTableValue(Math.E, ICustomPrinter.CellPosition.LEFT);
+        ascii.appendTableValue(123456.789, ICustomPrinter.CellPosition.RIGHT);
+        ascii.appendTableRow(0.5, Double.valueOf(1234567.5), "a");
+        ascii.endTable();
+        assertEquals("|   3.14|2.72   |1234...|\n|0.50   |1234...|a      |\n", ascii.toString());
+
+        Csv csv = new Csv();
+        csv.setDoubleFormatter(DoubleFormatter.shortest());
+        csv.startTable(5, 2);
+        csv.appendTableValue(0.1 + 0.2);
+        csv.appendTableValue(Double.valueOf(2));
+        csv.endTable();
+        assertEquals("0.30000000000000004,2.0\n", csv.toString());
+        assertThrows(IllegalArgumentException.class, () -> csv.setDoubleFormatter(null));
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class dedicated to the {@link FormatterRegistry} and {@link TemporalFormatter} classes.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class FormatterRegistryTest {
+
+    /**
+     * Format the given value with the given registry.
+     *
+     * @param registry Registry to use.
+     * @param value    Value to format.
+     * @return The text of the value.
+     */
+    private static String format(FormatterRegistry registry, Object value) throws IOException {
+        StringWriter writer = new StringWriter();
+        registry.format(value, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Test the resolution of the formatters.
+     */
+    @Test
+    void resolutionTest() throws IOException {
+        FormatterRegistry registry = new FormatterRegistry();
+        assertNull(registry.find(Integer.class));
+        assertNull(registry.find(Object.class));
+        assertEquals("12", format(registry, 12));
+
+        BoundedFormatter<Number> number = (value, out) -> out.append("n").append(value.toString());
+        registry.register(Number.class, number);
+        assertSame(number, registry.find(Integer.class));
+        assertSame(number, registry.find(Double.class));
+        assertEquals("n12", format(registry, 12));
+
+        BoundedFormatter<Serializable> serializable = (value, out) -> out.write("s");
+        registry.register(Serializable.class, serializable);
+        assertSame(number, registry.find(Integer.class));
+        assertSame(serializable, registry.find(Boolean.class));
+        assertEquals("s", format(registry, true));
+
+        FormatterRegistry copy = registry.copy();
+        registry.register(Integer.class, (value, out) -> out.write("i"));
+        assertEquals("i", format(registry, 12));
+        assertEquals("n12", format(copy, 12));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(null, number));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(Number.class, null));
+    }
+
+    /**
+     * Test the formatting of the arrays, collections and maps.
+     */
+    @Test
+    void structureTest() throws IOException {
+        FormatterRegistry registry = new FormatterRegistry();
+        registry.register(LocalDate.class, TemporalFormatter.ofPattern("dd/MM/yyyy"));
+        LocalDate date = LocalDate.of(2020, 3, 1);
+
+        Object[] array = {1, "a", null, date, new int[]{1, 2}, new double[]{0.5}, new boolean[]{true}};
+        assertEquals("[1, a, null, 01/03/2020, [1, 2], [0.5], [true]]", format(registry, array));
+        Object[] self = {1, null};
+        self[1] = self;
+        assertEquals(Arrays.deepToString(self), format(registry, self));
+
+        List<Object> list = new ArrayList<>(Arrays.asList(date, 2L));
+        assertEquals("[01/03/2020, 2]", format(registry, list));
+        list.add(list);
+        assertEquals("[01/03/2020, 2, (this Collection)]", format(registry, list));
+
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put("a", date);
+        map.put(date, new long[]{3});
+        assertEquals("{a=01/03/2020, 01/03/2020=[3]}", format(registry, map));
+
+        List<Object> named = new ArrayList<>() {
+            @Override
+            public String toString() {
+                return "named list";
+            }
+        };
+        named.add(date);
+        assertNull(registry.find(named.getClass()));
+        assertEquals("named list", format(registry, named));
+        Map<Object, Object> namedMap = new LinkedHashMap<>() {
+            @Override
+            public String toString() {
+                return "named map";
+            }
+        };
+        assertNull(registry.find(namedMap.getClass()));
+        assertEquals("named map", format(registry, namedMap));
+        List<Object> subList = new ArrayList<>() {};
+        subList.add(date);
+        assertEquals("[01/03/2020]", format(registry, subList));
+    }
+
+    /**
+     * Test the formatting of the primitive arrays.
+     */
+    @Test
+    void primitiveArrayTest() throws IOException {
+        FormatterRegistry registry = FormatterRegistry.getDefault();
+        assertEquals(Arrays.toString(new short[]{1, -2}), format(registry, new short[]{1, -2}));
+        assertEquals(Arrays.toString(new byte[]{3, -4}), format(registry, new byte[]{3, -4}));
+        assertEquals(Arrays.toString(new float[]{0.1f, 2}), format(registry, new float[]{0.1f, 2}));
+        assertEquals(Arrays.toString(new double[]{0.1, 2}), format(registry, new double[]{0.1, 2}));
+        assertEquals(Arrays.toString(new char[]{'a', 'b'}), format(registry, new char[]{'a', 'b'}));
+        assertEquals(Arrays.toString(new boolean[]{true, false}), format(registry, new boolean[]{true, false}));
+
+        registry = registry.copy();
+        registry.register(Double.class, DoubleFormatter.fixed(2));
+        registry.register(Integer.class, (value, out) -> out.append("i").append(value.toString()));
+        assertEquals("[0.50, 1.00]", format(registry, new double[]{0.5, 1}));
+        assertEquals("[i1, i2]", format(registry, new int[]{1, 2}));
+        StringBuilder builder = new StringBuilder();
+        LimitedWriter writer = new LimitedWriter(builder, 9);
+        assertThrows(LimitedWriter.LimitReachedException.class,
+                () -> FormatterRegistry.getDefault().copy().format(new double[]{0.5, 1, 2}, writer));
+        writer.reset(9);
+        FormatterRegistry fixed = registry;
+        assertThrows(LimitedWriter.LimitReachedException.class,
+                () -> fixed.format(new double[]{0.5, 1, 2}, writer));
+        assertEquals("[0.50, 1.", builder.toString());
+    }
+
+    /**
+     * Test the {@link TemporalFormatter} and the default registry.
+     */
+    @Test
+    void temporalTest() throws IOException {
+        assertSame(TemporalFormatter.ofPattern("yyyy"), TemporalFormatter.ofPattern("yyyy"));
+        LocalDateTime time = LocalDateTime.of(2020, 3, 1, 10, 30);
+        FormatterRegistry registry = FormatterRegistry.getDefault();
+        assertNull(registry.find(LocalDateTime.class));
+        assertNotNull(registry.find(LocalDate.class));
+        assertEquals("2020-03-01T10:30", format(registry, time));
+        assertEquals("2020-03-01", format(registry, time.toLocalDate()));
+        ZonedDateTime zoned = time.atZone(ZoneOffset.ofHours(2));
+        Object[] values = {time, time.toLocalDate(), time.toLocalTime(), zoned, zoned.toOffsetDateTime(),
+                zoned.toOffsetDateTime().toOffsetTime(), zoned.toInstant(), LocalDate.of(12345, 1, 1),
+                LocalDate.of(-5, 1, 1), time.withNano(120000000).toInstant(ZoneOffset.UTC)};
+        for (Object value : values) {
+            assertEquals(value.toString(), format(registry, value));
+        }
+
+        StringBuilder builder = new StringBuilder();
+        LimitedWriter writer = new LimitedWriter(builder, 7);
+        assertThrows(LimitedWriter.LimitReachedException.class,
+                () -> TemporalFormatter.ofPattern("dd/MM/yyyy").format(time, writer));
+        assertEquals("01/03/2", builder.toString());
+        assertThrows(IllegalArgumentException.class, () -> TemporalFormatter.ofPattern(null));
+    }
+
+    /**
+     * Test the use of the {@link FormatterRegistry} by the printers.
+     */
+    @Test
+    void printerTest() {
+        LocalDate date = LocalDate.of(2020, 3, 1);
+        Ascii ascii = new Ascii();
+        ascii.setFormatter(LocalDate.class, TemporalFormatter.ofPattern("dd/MM/yyyy"));
+        ascii.startTable(10, 2);
+        ascii.appendTableRow(date, Arrays.asList(date, date));
+        ascii.endTable();
+        assertEquals("|01/03/2020|[01/03/...|\n", ascii.toString());
+        assertSame(FormatterRegistry.getDefault(), new Ascii().getFormatterRegistry());
+        assertNotNull(ascii.getFormatterRegistry().find(LocalDate.class));
+        assertNotSame(FormatterRegistry.getDefault(), ascii.getFormatterRegistry());
+
+        FormatterRegistry registry = new FormatterRegistry();
+        registry.register(Boolean.class, (value, out) -> out.write(value ? "yes" : "no"));
+        Csv csv = new Csv();
+        csv.setFormatterRegistry(registry);
+        assertSame(registry, csv.getFormatterRegistry());
+        csv.startTable(5, 3);
+        csv.appendTableRow(Boolean.TRUE, new String[]{"a", "b"}, date);
+        csv.endTable();
+        assertEquals("yes,\"[a, b]\",2020-03-01\n", csv.toString());
+
+        csv.setFormatter(LocalDate.class, (value, out) -> out.write("date"));
+        assertNull(registry.find(LocalDate.class));
+        assertThrows(IllegalArgumentException.class, () -> csv.setFormatterRegistry(null));
+    }
+}
@@ -38,8 +38,13 @@ package org.orbisgis.commons.printer;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
 
 /**
@@ -171,6 +176,96 @@ class HtmlTest {
                 "</tr>\n", html.toString());
     }
 
+    /**
+     * Test the appending of primitive values with the
+     * {@link Html#appendTableValue(long, ICustomPrinter.CellPosition)},
+     * {@link Html#appendTableValue(double, ICustomPrinter.CellPosition)} and
+     * {@link Html#appendTableValue(boolean, ICustomPrinter.CellPosition)} methods and their variant without position.
+     */
+    @Test
+    void appendPrimitiveTableValueTest() {
+        Html html = new Html();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableValue(1, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableValue(1L, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableValue(1.0, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableValue(true, null));
+
+        html.appendTableValue(1);
+        html.appendTableValue(1L, LEFT);
+        html.appendTableValue(1.5);
+        html.appendTableValue(false, RIGHT);
+        assertEquals("", html.toString());
+
+        html.startTable(10, 4);
+        html.appendTableValue(12, RIGHT);
+        html.appendTableValue(-123456789L);
+        html.appendTableValue(3.5);
+        html.appendTableValue(true, CENTER);
+        html.appendTableValue(12345678901L);
+        html.appendTableValue(-9.87E-5, LEFT);
+        html.appendTableValue(false);
+        html.appendTableValue(-2, RIGHT);
+        assertEquals("<table>\n" +
+                "<tr>\n" +
+                "<td align=\"RIGHT\">12</td>\n" +
+                "<td align=\"LEFT\">-123456789</td>\n" +
+                "<td align=\"LEFT\">3.5</td>\n" +
+                "<td align=\"CENTER\">true</td>\n" +
+                "</tr>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">1234567...</td>\n" +
+                "<td align=\"LEFT\">-9.87E-5</td>\n" +
+                "<td align=\"LEFT\">false</td>\n" +
+                "<td align=\"RIGHT\">-2</td>\n" +
+                "</tr>\n", html.toString());
+    }
+
+    /**
+     * Test the truncation of long {@link CharSequence} values, which should not be converted into {@link String}.
+     */
+    @Test
+    void truncationTest() {
+        CharSequence longValue = new CharSequence() {
+            @Override
+            public int length() {
+                return 1_000_000;
+            }
+
+            @Override
+            public char charAt(int index) {
+                return 'a';
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return new StringBuilder().append(this, start, end);
+            }
+
+            @Override
+            public String toString() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        Html html = new Html();
+        html.startTable(9, 1);
+        html.appendTableValue(longValue);
+        html.startTable(2, 1);
+        html.appendTableValue("abc");
+        assertEquals("<table>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">aaaaaa...</td>\n" +
+                "</tr>\n" +
+                "<table>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">..</td>\n" +
+                "</tr>\n", html.toString());
+    }
+
     /**
      * Test the {@link Html#appendTableHeaderValue(Object, ICustomPrinter.CellPosition)} method.
      */
@@ -249,4 +344,164 @@ class HtmlTest {
         html.appendValue("value");
         assertEquals("<p>value</p>\n<table>\n<tr>\n<td align=\"LEFT\">value</td>\n</tr>\n", html.toString());
     }
+
+    /**
+     * Test the {@link Html#appendTableRow(Object...)} and {@link Html#appendTableRows(Iterable)} methods.
+     */
+    @Test
+    void appendTableRowTest() {
+        Html html = new Html();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableRow((Object[]) null));
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableRow("a", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableRows(null));
+
+        html.appendTableRow("a", "b");
+        assertEquals("", html.toString());
+
+        html.startTable(5, 2);
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableRows(Collections.singletonList(new Object[]{null})));
+        html.appendTableRow("a", "too long");
+        String before = html.toString();
+        assertThrows(IllegalArgumentException.class,
+                () -> html.appendTableRows(Arrays.asList(new Object[]{"b", 0}, new Object[]{"c", null})));
+        assertEquals(before, html.toString());
+        html.appendTableRows(Arrays.asList(new Object[]{"c", 1}, new Object[]{"d", 2.5}));
+        assertEquals("<table>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">a</td>\n" +
+                "<td align=\"LEFT\">to...</td>\n" +
+                "</tr>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">c</td>\n" +
+                "<td align=\"LEFT\">1</td>\n" +
+                "</tr>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">d</td>\n" +
+                "<td align=\"LEFT\">2.5</td>\n" +
+                "</tr>\n", html.toString());
+    }
+
+    /**
+     * Test the escaping of the HTML special characters.
+     */
+    @Test
+    void escapeTest() {
+        Html html = new Html();
+        html.appendValue("<b>Tom & \"Jerry's\"</b>");
+        html.startTable(12, 2);
+        html.appendTableTitle("a<b");
+        html.appendTableHeaderValue("x>y", CENTER);
+        html.appendTableValue("<script>alert(1)</script>");
+        assertEquals("<p>&lt;b&gt;Tom &amp; &quot;Jerry&#39;s&quot;&lt;/b&gt;</p>\n" +
+                "<table>\n" +
+                "<caption>a&lt;b</caption>\n" +
+                "<tr>\n" +
+                "<th align=\"CENTER\">x&gt;y</th>\n" +
+                "<td align=\"LEFT\">&lt;script&gt;a...</td>\n" +
+                "</tr>\n", html.toString());
+
+        StringBuilder builder = new StringBuilder();
+        Html.escape("no special character", 3, 10, builder);
+        assertEquals("special", builder.toString());
+    }
+
+    /**
+     * Test the {@link Html#reset()} method.
+     */
+    @Test
+    void resetTest() {
+        Html html = new Html();
+        html.startTable(5, 2);
+        html.appendTableValue("value");
+        html.reset();
+        assertEquals("", html.toString());
+        html.appendTableValue("ignored");
+        assertEquals("", html.toString());
+
+        html.startTable(5, 1);
+        html.appendTableValue("a");
+        assertEquals("<table>\n<tr>\n<td align=\"LEFT\">a</td>\n</tr>\n", html.toString());
+    }
+
+    /**
+     * Test the {@link Html} printer streaming into an {@link Appendable}.
+     */
+    @Test
+    void sinkTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new Html(null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new Html(new StringWriter(), -1));
+
+        StringWriter writer = new StringWriter();
+        Html html = new Html(writer, 0);
+        html.startTable(5, 2);
+        assertEquals("<table>\n", html.toString());
+        html.appendTableValue("a");
+        html.appendTableValue("b");
+        assertEquals("<table>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">a</td>\n" +
+                "<td align=\"LEFT\">b</td>\n" +
+                "</tr>\n", writer.toString());
+        assertEquals("", html.toString());
+        html.endTable();
+        assertEquals("<table>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">a</td>\n" +
+                "<td align=\"LEFT\">b</td>\n" +
+                "</tr>\n" +
+                "</table>\n", writer.toString());
+
+        writer = new StringWriter();
+        html = new Html(writer, 1000);
+        html.appendValue("value");
+        assertEquals("", writer.toString());
+        assertEquals("<p>value</p>\n", html.toString());
+        html.flush();
+        assertEquals("<p>value</p>\n", writer.toString());
+        assertEquals("", html.toString());
+    }
+
+    /**
+     * Test the truncation of the output once the output budget is reached.
+     */
+    @Test
+    void outputBudgetTest() {
+        Html html = new Html();
+        html.setOutputBudget(120);
+        html.startTable(5, 2);
+        html.appendTableLineSeparator();
+        for (int i = 0; i < 10; i++) {
+            html.appendTableValue("a" + i);
+            html.appendTableValue(i);
+        }
+        html.endTable();
+        html.appendValue("after");
+        assertEquals("<table>\n" +
+                "<tr></tr>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">a0</td>\n" +
+                "<td align=\"LEFT\">0</td>\n" +
+                "</tr>\n" +
+                "<tr>\n" +
+                "<td colspan=\"2\" align=\"CENTER\">... output truncated ...</td>\n" +
+                "</tr>\n" +
+                "</table>\n", html.toString());
+        assertTrue(html.isTruncated());
+
+        html = new Html();
+        html.setOutputBudget(60);
+        html.startTable(5, 1);
+        html.appendTableValue("a");
+        html.endTable();
+        html.appendValue("a long paragraph");
+        assertEquals("<table>\n<tr>\n<td align=\"LEFT\">a</td>\n</tr>\n</table>\n" +
+                "<p>... output truncated ...</p>\n", html.toString());
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the default methods of the {@link ICustomPrinter} interface.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class ICustomPrinterTest {
+
+    /**
+     * {@link ICustomPrinter} only implementing the abstract methods, recording the calls.
+     */
+    private static class MinimalPrinter implements ICustomPrinter {
+
+        /**
+         * Recorded calls
+         */
+        private final StringBuilder calls = new StringBuilder();
+
+        @Override
+        public void startTable(int columnWidth, int columnCount) {
+            calls.append("start(").append(columnWidth).append(",").append(columnCount).append(")");
+        }
+
+        @Override
+        public void endTable() {
+            calls.append("end");
+        }
+
+        @Override
+        public void appendTableLineSeparator() {
+            calls.append("-");
+        }
+
+        @Override
+        public void appendTableValue(Object value) {
+            calls.append("[").append(value).append("]");
+        }
+
+        @Override
+        public void appendTableValue(Object value, CellPosition position) {
+            calls.append("[").append(value).append(position).append("]");
+        }
+
+        @Override
+        public void appendTableHeaderValue(Object value, CellPosition position) {
+            calls.append("{").append(value).append("}");
+        }
+
+        @Override
+        public void appendTableTitle(Object title) {
+            calls.append("title");
+        }
+
+        @Override
+        public void appendValue(Object value) {
+            calls.append(value);
+        }
+
+        @Override
+        public String toString() {
+            return calls.toString();
+        }
+    }
+
+    /**
+     * Test the default methods on a printer only implementing the abstract methods.
+     */
+    @Test
+    void defaultMethodsTest() {
+        MinimalPrinter printer = new MinimalPrinter();
+        printer.startTable(new int[]{3, 7, 5}, new ICustomPrinter.CellPosition[]{LEFT, RIGHT, CENTER});
+        printer.appendTableRow("a", 1, 2.5);
+        printer.appendTableRows(Arrays.asList(new Object[]{"b"}, new Object[]{"c", "d"}));
+        printer.flush();
+        printer.reset();
+        printer.endTable();
+        assertEquals("start(7,3)[a][1][2.5][b][c][d]end", printer.toString());
+        assertThrows(IllegalArgumentException.class,
+                () -> printer.appendTableRows(Arrays.asList(new Object[]{"e"}, new Object[]{null})));
+        assertEquals("start(7,3)[a][1][2.5][b][c][d]end", printer.toString());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> printer.startTable(new int[]{1}, new ICustomPrinter.CellPosition[]{LEFT, RIGHT}));
+        assertThrows(IllegalArgumentException.class,
+                () -> printer.startTable(new int[]{1}, new ICustomPrinter.CellPosition[]{null}));
+        assertThrows(IllegalArgumentException.class, () -> printer.appendTableRow("a", null));
+        assertThrows(IllegalArgumentException.class, () -> printer.appendTableRows(null));
+        assertEquals("start(7,3)[a][1][2.5][b][c][d]end", printer.toString());
+    }
+}
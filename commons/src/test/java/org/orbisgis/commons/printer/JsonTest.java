@@ -0,0 +1,152 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link Json} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class JsonTest {
+
+    /**
+     * Test the building of a {@link Json} printer.
+     */
+    @Test
+    void buildTest() {
+        Json json = new Json();
+        assertEquals("", json.toString());
+        json = new Json(new StringBuilder("[]\n"));
+        assertEquals("[]\n", json.toString());
+        assertThrows(IllegalArgumentException.class, () -> new Json(null, 10));
+    }
+
+    /**
+     * Test the printing of a table with header values as keys and typed values.
+     */
+    @Test
+    void tableTest() {
+        Json json = new Json();
+        json.startTable(10, 4);
+        json.appendTableTitle("Title");
+        json.appendTableLineSeparator();
+        json.appendTableHeaderValue("id", CENTER);
+        json.appendTableHeaderValue("name", CENTER);
+        json.appendTableHeaderValue("value", CENTER);
+        json.appendTableHeaderValue("valid", CENTER);
+        json.appendTableLineSeparator();
+        json.appendTableValue(1);
+        json.appendTableValue("a \"quoted\" name");
+        json.appendTableValue(1.5);
+        json.appendTableValue(true);
+        json.appendTableRow(2L, "b", new BigDecimal("2.50"), false);
+        json.endTable();
+        assertEquals("[{\"id\":1,\"name\":\"a \\\"quoted\\\" name\",\"value\":1.5,\"valid\":true}," +
+                "{\"id\":2,\"name\":\"b\",\"value\":2.50,\"valid\":false}]\n", json.toString());
+    }
+
+    /**
+     * Test the printing of a table without header, of several tables and of values outside tables.
+     */
+    @Test
+    void defaultKeysTest() {
+        Json json = new Json();
+        json.startTable(10, 2);
+        json.appendTableValue("a");
+        json.appendTableValue(1, RIGHT);
+        json.endTable();
+        json.startTable(10, 1);
+        json.endTable();
+        json.appendValue("text");
+        json.appendValue(3);
+        assertEquals("[{\"column1\":\"a\",\"column2\":1}]\n[]\n\"text\"\n3\n", json.toString());
+
+        json.reset();
+        assertEquals("", json.toString());
+        json.startTable(10, 1);
+        json.appendTableValue(false, LEFT);
+        json.endTable();
+        assertEquals("[{\"column1\":false}]\n", json.toString());
+    }
+
+    /**
+     * Test the streaming of the printed data into an {@link Appendable}.
+     */
+    @Test
+    void sinkTest() {
+        StringWriter writer = new StringWriter();
+        Json json = new Json(writer, 0);
+        json.startTable(10, 1);
+        json.appendTableHeaderValue("key", CENTER);
+        json.appendTableValue("v1");
+        assertEquals("[{\"key\":\"v1\"}", writer.toString());
+        json.appendTableValue("v2");
+        json.endTable();
+        json.flush();
+        assertEquals("[{\"key\":\"v1\"},{\"key\":\"v2\"}]\n", writer.toString());
+        assertEquals("", json.toString());
+    }
+
+    /**
+     * Test the truncation of the output once the output budget is reached.
+     */
+    @Test
+    void outputBudgetTest() {
+        Json json = new Json();
+        json.setOutputBudget(30);
+        json.startTable(5, 2);
+        for (int i = 0; i < 10; i++) {
+            json.appendTableValue("a" + i);
+            json.appendTableValue(i);
+        }
+        json.endTable();
+        json.appendValue("after");
+        assertEquals("[{\"column1\":\"a0\",\"column2\":0}]\n", json.toString());
+        assertTrue(json.isTruncated());
+    }
+}
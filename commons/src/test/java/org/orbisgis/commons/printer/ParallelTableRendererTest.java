@@ -0,0 +1,214 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link ParallelTableRenderer} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class ParallelTableRendererTest {
+
+    /**
+     * Build rows used for the tests.
+     *
+     * @param count Count of rows.
+     * @return The rows.
+     */
+    private static List<Object[]> rows(int count) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{i, "value " + i, i * 0.5});
+        }
+        return rows;
+    }
+
+    /**
+     * Test the building of a {@link ParallelTableRenderer}.
+     */
+    @Test
+    void buildTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelTableRenderer(null, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelTableRenderer(Ascii::new, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ParallelTableRenderer(Ascii::new, 1).setPool(null));
+    }
+
+    /**
+     * Test the {@link ParallelTableRenderer#render(CustomPrinter, List)} method.
+     */
+    @Test
+    void renderTest() {
+        ParallelTableRenderer renderer = new ParallelTableRenderer(Ascii::new, 7);
+        int[] widths = {4, 12, 6};
+        ICustomPrinter.CellPosition[] positions = {RIGHT, LEFT, CENTER};
+
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(null, rows(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(new Ascii(), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(new Ascii(), rows(1)));
+
+        Ascii expected = new Ascii();
+        expected.startTable(widths, positions);
+        expected.appendTableRows(rows(1000));
+        expected.endTable();
+
+        Ascii ascii = new Ascii();
+        ascii.startTable(widths, positions);
+        renderer.render(ascii, rows(1000));
+        ascii.endTable();
+        assertEquals(expected.toString(), ascii.toString());
+
+        Ascii partial = new Ascii();
+        partial.startTable(widths, positions);
+        partial.appendTableValue(1);
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(partial, rows(1)));
+        Ascii invalid = new Ascii();
+        invalid.startTable(widths, positions);
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(invalid, Collections.singletonList(new Object[]{1, 2})));
+    }
+
+    /**
+     * Test the rendering into a streaming {@link Html} printer with a custom {@link ForkJoinPool}.
+     */
+    @Test
+    void renderHtmlTest() {
+        ParallelTableRenderer renderer = new ParallelTableRenderer(Html::new, 3);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        renderer.setPool(pool);
+
+        Html expected = new Html();
+        expected.startTable(10, 3);
+        expected.appendTableRows(rows(100));
+        expected.endTable();
+
+        StringWriter writer = new StringWriter();
+        Html html = new Html(writer, 64);
+        html.startTable(10, 3);
+        renderer.render(html, rows(100));
+        html.endTable();
+        html.flush();
+        assertEquals(expected.toString(), writer.toString());
+        pool.shutdown();
+    }
+
+    /**
+     * Test the rendering of the values with the formatters of the target printer.
+     */
+    @Test
+    void formatterTest() {
+        ParallelTableRenderer renderer = new ParallelTableRenderer(Ascii::new, 3);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rows.add(new Object[]{i, LocalDate.of(2020, 1, 1 + i), i / 3d});
+        }
+
+        Ascii expected = new Ascii();
+        expected.setDoubleFormatter(DoubleFormatter.fixed(2));
+        expected.setFormatter(LocalDate.class, TemporalFormatter.ofPattern("dd/MM"));
+        expected.startTable(6, 3);
+        expected.appendTableRows(rows);
+        expected.endTable();
+
+        Ascii ascii = new Ascii();
+        ascii.setDoubleFormatter(DoubleFormatter.fixed(2));
+        ascii.setFormatter(LocalDate.class, TemporalFormatter.ofPattern("dd/MM"));
+        ascii.startTable(6, 3);
+        renderer.render(ascii, rows);
+        ascii.endTable();
+        assertEquals(expected.toString(), ascii.toString());
+        assertTrue(ascii.toString().contains("|02/01 |0.33  |"));
+    }
+
+    /**
+     * Test the rendering of a table into a printer with an output budget.
+     */
+    @Test
+    void outputBudgetTest() {
+        ParallelTableRenderer renderer = new ParallelTableRenderer(Ascii::new, 3);
+        renderer.setPool(new ForkJoinPool(2));
+        int[] widths = {4, 12, 6};
+        ICustomPrinter.CellPosition[] positions = {RIGHT, LEFT, CENTER};
+        for (int budget : new int[]{0, 60, 100, 250, 600, 2000}) {
+            Ascii expected = new Ascii();
+            expected.setOutputBudget(budget);
+            expected.startTable(widths, positions);
+            expected.appendTableRows(rows(20));
+            expected.endTable();
+            expected.appendValue("after");
+
+            Ascii ascii = new Ascii();
+            ascii.setOutputBudget(budget);
+            ascii.startTable(widths, positions);
+            renderer.render(ascii, rows(20));
+            ascii.endTable();
+            ascii.appendValue("after");
+            assertEquals(expected.toString(), ascii.toString(), "budget " + budget);
+            assertEquals(expected.isTruncated(), ascii.isTruncated());
+
+            StringWriter writer = new StringWriter();
+            Ascii streaming = new Ascii(writer, 50);
+            streaming.setOutputBudget(budget);
+            streaming.startTable(widths, positions);
+            renderer.render(streaming, rows(20));
+            streaming.endTable();
+            streaming.flush();
+            assertEquals(expected.toString().replace("after\n", ""), writer.toString(), "budget " + budget);
+        }
+    }
+}
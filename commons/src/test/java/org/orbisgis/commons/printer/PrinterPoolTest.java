@@ -0,0 +1,131 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class dedicated to the {@link PrinterPool} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class PrinterPoolTest {
+
+    /**
+     * Test the building of a {@link PrinterPool}.
+     */
+    @Test
+    void buildTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrinterPool<Ascii>(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrinterPool<>(Ascii::new, 0, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrinterPool<>(Ascii::new, 1, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrinterPool<Ascii>(() -> null).acquire());
+        assertThrows(IllegalArgumentException.class,
+                () -> new PrinterPool<>(Ascii::new).release(null));
+    }
+
+    /**
+     * Test the {@link PrinterPool#acquire()} and {@link PrinterPool#release(CustomPrinter)} methods.
+     */
+    @Test
+    void acquireReleaseTest() {
+        PrinterPool<Html> pool = new PrinterPool<>(Html::new, 1, 1024);
+        Html html = pool.acquire();
+        html.startTable(5, 1);
+        html.appendTableValue("value");
+        StringBuilder builder = html.builder;
+        pool.release(html);
+
+        Html other = pool.acquire();
+        assertSame(html, other);
+        assertSame(builder, other.builder);
+        assertEquals("", other.toString());
+        assertNotSame(other, pool.acquire());
+
+        other.appendValue("a");
+        other.appendValue("b");
+        assertEquals("<p>a</p>\n<p>b</p>\n", other.toString());
+
+        for (int i = 0; i < 100; i++) {
+            other.appendValue("large content");
+        }
+        pool.release(other);
+        assertTrue(pool.acquire().builder.capacity() <= 1024);
+    }
+
+    /**
+     * Test the restoration of the printer configuration and the rejection of the double releases.
+     */
+    @Test
+    void configurationTest() {
+        PrinterPool<Ascii> pool = new PrinterPool<>(() -> {
+            Ascii ascii = new Ascii();
+            ascii.setFormatter(Integer.class, (value, out) -> out.write("i" + value));
+            return ascii;
+        }, 1, 1024);
+        Ascii ascii = pool.acquire();
+        ascii.setOutputBudget(5);
+        ascii.setDoubleFormatter(DoubleFormatter.fixed(2));
+        ascii.setFormatter(Integer.class, (value, out) -> out.write("changed"));
+        pool.release(ascii);
+        assertThrows(IllegalArgumentException.class, () -> pool.release(ascii));
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new Ascii()));
+
+        Ascii other = pool.acquire();
+        assertSame(ascii, other);
+        other.startTable(6, 2);
+        other.appendTableValue(Integer.valueOf(1));
+        other.appendTableValue(Double.valueOf(0.5));
+        other.endTable();
+        other.appendValue("no budget");
+        assertEquals("|i1    |0.5   |\nno budget\n", other.toString());
+        assertFalse(other.isTruncated());
+        assertNotSame(other, pool.acquire());
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link RecordedTable} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class RecordedTableTest {
+
+    /**
+     * Print tables into the given printer.
+     *
+     * @param printer Printer to use.
+     */
+    private static void print(ICustomPrinter printer) {
+        printer.appendValue("Before");
+        printer.startTable(new int[]{4, 10, 8, 6}, new ICustomPrinter.CellPosition[]{RIGHT, LEFT, RIGHT, CENTER});
+        printer.appendTableTitle("Title");
+        printer.appendTableLineSeparator();
+        printer.appendTableHeaderValue("id", CENTER);
+        printer.appendTableHeaderValue("name", CENTER);
+        printer.appendTableHeaderValue("value", CENTER);
+        printer.appendTableHeaderValue("valid", CENTER);
+        printer.appendTableLineSeparator();
+        for (int i = 0; i < 40; i++) {
+            printer.appendTableValue(i);
+            printer.appendTableValue("name" + i, CENTER);
+            printer.appendTableValue(i / 3.0, LEFT);
+            printer.appendTableValue(i % 2 == 0);
+        }
+        printer.appendTableRow(40L, new StringBuilder("builder"), new BigDecimal("1.50"), Boolean.TRUE);
+        printer.appendTableRows(Arrays.asList(new Object[]{41, "a", 2.5f, false}, new Object[]{42, "b", 3, true}));
+        printer.appendTableLineSeparator();
+        printer.endTable();
+        printer.startTable(5, 1);
+        printer.appendValue(1.25);
+        printer.endTable();
+        printer.appendValue("After");
+    }
+
+    /**
+     * Test the rendering of the recorded data into several printers.
+     */
+    @Test
+    void renderTest() {
+        RecordedTable table = new RecordedTable();
+        print(table);
+        for (Supplier<ICustomPrinter> factory : Arrays.<Supplier<ICustomPrinter>>asList(Ascii::new, Html::new,
+                Csv::new, Json::new)) {
+            ICustomPrinter expected = factory.get();
+            print(expected);
+            ICustomPrinter printer = factory.get();
+            table.renderTo(printer);
+            assertEquals(expected.toString(), printer.toString());
+            printer = factory.get();
+            table.renderTo(printer);
+            assertEquals(expected.toString(), printer.toString());
+        }
+        Ascii ascii = new Ascii();
+        print(ascii);
+        assertEquals(ascii.toString(), table.toString());
+
+        table.reset();
+        assertEquals("", table.toString());
+        assertThrows(IllegalArgumentException.class, () -> table.renderTo(null));
+        assertThrows(IllegalArgumentException.class, () -> table.appendTableValue(null));
+        assertThrows(IllegalArgumentException.class, () -> table.appendTableValue(1, null));
+    }
+
+    /**
+     * Print a table with values formatted by the printers.
+     *
+     * @param printer Printer to use.
+     */
+    private static void printFormatted(ICustomPrinter printer) {
+        printer.startTable(new int[]{6, 12, 8}, new ICustomPrinter.CellPosition[]{LEFT, LEFT, RIGHT});
+        printer.appendTableRow(1.1f, new int[]{1, 2, 3}, LocalDate.of(2020, 3, 1));
+        printer.appendTableValue(-0.3f, RIGHT);
+        printer.appendTableValue(Arrays.asList(1.5, "a"));
+        printer.appendTableValue(2.0 / 3);
+        printer.endTable();
+    }
+
+    /**
+     * Test that the recorded values are formatted by the target printer like the directly printed ones.
+     */
+    @Test
+    void formattingTest() {
+        RecordedTable table = new RecordedTable();
+        printFormatted(table);
+        AtomicInteger count = new AtomicInteger();
+        Supplier<Ascii> factory = () -> {
+            Ascii ascii = new Ascii();
+            ascii.setDoubleFormatter(DoubleFormatter.fixed(2));
+            ascii.setFormatter(LocalDate.class, (value, out) -> {
+                count.incrementAndGet();
+                out.write(value.getMonth().name());
+            });
+            return ascii;
+        };
+        Ascii expected = factory.get();
+        printFormatted(expected);
+        assertEquals("|1.1   |[1, 2, 3]   |   MARCH|\n" +
+                "|  -0.3|[1.50, a]   |    0.67|\n", expected.toString());
+        for (int i = 0; i < 2; i++) {
+            Ascii recorded = factory.get();
+            table.renderTo(recorded);
+            assertEquals(expected.toString(), recorded.toString());
+        }
+        assertEquals(3, count.get());
+
+        Csv csv = new Csv();
+        printFormatted(csv);
+        Csv recordedCsv = new Csv();
+        table.renderTo(recordedCsv);
+        assertEquals(csv.toString(), recordedCsv.toString());
+    }
+
+    /**
+     * Test that the recorded boxed values are formatted by the formatters registered for their class.
+     */
+    @Test
+    void boxedFormatterTest() {
+        RecordedTable table = new RecordedTable();
+        table.startTable(6, 4);
+        table.appendTableRow(1, 2L, true, 0.5f);
+        table.appendTableRow(Short.valueOf((short) 3), Byte.valueOf((byte) 4), false, 1.5);
+        table.endTable();
+
+        Ascii expected = new Ascii();
+        expected.setFormatter(Integer.class, (value, out) -> out.write("i" + value));
+        expected.setFormatter(Boolean.class, (value, out) -> out.write(value ? "yes" : "no"));
+        expected.setFormatter(Float.class, (value, out) -> out.write("f" + value));
+        expected.startTable(6, 4);
+        expected.appendTableRow(1, 2L, true, 0.5f);
+        expected.appendTableRow(Short.valueOf((short) 3), Byte.valueOf((byte) 4), false, 1.5);
+        expected.endTable();
+        assertEquals("|i1    |2     |yes   |f0.5  |\n|3     |4     |no    |1.5   |\n", expected.toString());
+
+        Ascii recorded = new Ascii();
+        recorded.setFormatter(Integer.class, (value, out) -> out.write("i" + value));
+        recorded.setFormatter(Boolean.class, (value, out) -> out.write(value ? "yes" : "no"));
+        recorded.setFormatter(Float.class, (value, out) -> out.write("f" + value));
+        table.renderTo(recorded);
+        assertEquals(expected.toString(), recorded.toString());
+        assertEquals("|1     |2     |true  |0.5   |\n|3     |4     |false |1.5   |\n", table.toString());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.h2.tools.SimpleResultSet;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Test class dedicated to the {@link ResultSetRenderer} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class ResultSetRendererTest {
+
+    /**
+     * In memory H2 database connection
+     */
+    private static Connection connection;
+
+    @BeforeAll
+    static void beforeAll() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:" + ResultSetRendererTest.class.getSimpleName());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE data(id INT, name VARCHAR(20), val DOUBLE, big BIGINT, flag BOOLEAN, " +
+                    "ratio REAL)");
+            statement.execute("INSERT INTO data VALUES (1, 'first', 1.5, 10000000000, TRUE, 1.1), " +
+                    "(2, 'second too long', NULL, 2, FALSE, NULL), (3, NULL, -3.25, NULL, NULL, -0.3)");
+        }
+    }
+
+    @AfterAll
+    static void afterAll() throws SQLException {
+        connection.close();
+    }
+
+    /**
+     * Test the building and the configuration of a {@link ResultSetRenderer}.
+     */
+    @Test
+    void buildTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ResultSetRenderer(null));
+        ResultSetRenderer renderer = new ResultSetRenderer(new Ascii());
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.setColumnWidth(2));
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.setFetchSize(-1));
+        assertThrows(IllegalArgumentException.class,
+                () -> renderer.render(null));
+    }
+
+    /**
+     * Test the {@link ResultSetRenderer#render(ResultSet)} method.
+     */
+    @Test
+    void renderTest() throws SQLException {
+        Ascii ascii = new Ascii();
+        ResultSetRenderer renderer = new ResultSetRenderer(ascii);
+        renderer.setColumnWidth(11);
+        renderer.setFetchSize(2);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT * FROM data ORDER BY id")) {
+            assertEquals(3, renderer.render(resultSet));
+        }
+        assertEquals("+-----------+-----------+-----------+-----------+-----+-----------+\n" +
+                "|    ID     |   NAME    |    VAL    |    BIG    |FLAG |   RATIO   |\n" +
+                "+-----------+-----------+-----------+-----------+-----+-----------+\n" +
+                "|          1|first      |        1.5|10000000000|true |        1.1|\n" +
+                "|          2|second t...|       null|          2|false|       null|\n" +
+                "|          3|null       |      -3.25|       null|null |       -0.3|\n" +
+                "+-----------+-----------+-----------+-----------+-----+-----------+\n", ascii.toString());
+
+        Html html = new Html();
+        renderer = new ResultSetRenderer(html);
+        renderer.setMaxRows(1);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name, val FROM data ORDER BY id")) {
+            assertEquals(1, renderer.render(resultSet));
+        }
+        assertEquals("<table>\n" +
+                "<tr></tr>\n" +
+                "<tr>\n" +
+                "<th align=\"CENTER\">NAME</th>\n" +
+                "<th align=\"CENTER\">VAL</th>\n" +
+                "</tr>\n" +
+                "<tr></tr>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">first</td>\n" +
+                "<td align=\"RIGHT\">1.5</td>\n" +
+                "</tr>\n" +
+                "<tr></tr>\n" +
+                "</table>\n", html.toString());
+    }
+
+    /**
+     * Test the reading of the {@link Types#BIT} and {@link Types#REAL} columns.
+     */
+    @Test
+    void bitAndRealTest() throws SQLException {
+        SimpleResultSet resultSet = new SimpleResultSet();
+        resultSet.addColumn("BIT1", Types.BIT, 1, 0);
+        resultSet.addColumn("BIT8", Types.BIT, 8, 0);
+        resultSet.addColumn("RATIO", Types.REAL, 7, 0);
+        resultSet.addRow(true, "10100101", 0.1f);
+        Json json = new Json();
+        assertEquals(1, new ResultSetRenderer(json).render(resultSet));
+        assertEquals("[{\"BIT1\":true,\"BIT8\":\"10100101\",\"RATIO\":0.1}]\n", json.toString());
+    }
+}
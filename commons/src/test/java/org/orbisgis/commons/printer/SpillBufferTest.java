@@ -0,0 +1,172 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class dedicated to the {@link SpillBuffer} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class SpillBufferTest {
+
+    /**
+     * Print a table into the given printer.
+     *
+     * @param printer Printer to use.
+     */
+    private static void printTable(CustomPrinter printer) {
+        printer.startTable(8, 2);
+        printer.appendTableLineSeparator();
+        for (int i = 0; i < 200; i++) {
+            printer.appendTableRow("é😀" + i, i);
+        }
+        printer.appendTableLineSeparator();
+        printer.endTable();
+        printer.flush();
+    }
+
+    /**
+     * Test the buffer staying on the heap below the threshold.
+     */
+    @Test
+    void heapTest() throws IOException {
+        try (SpillBuffer buffer = new SpillBuffer(100000)) {
+            Ascii ascii = new Ascii(buffer, 64);
+            printTable(ascii);
+            Ascii expected = new Ascii();
+            printTable(expected);
+            assertFalse(buffer.isSpilled());
+            assertEquals(expected.toString(), buffer.toString());
+            assertEquals(expected.toString().length(), buffer.size());
+            StringWriter writer = new StringWriter();
+            buffer.writeTo(writer);
+            assertEquals(expected.toString(), writer.toString());
+        }
+    }
+
+    /**
+     * Test the buffer spilled into the temporary file.
+     */
+    @Test
+    void spillTest() throws IOException {
+        SpillBuffer buffer = new SpillBuffer(100, 257);
+        Ascii ascii = new Ascii(buffer, 64);
+        printTable(ascii);
+        Ascii expected = new Ascii();
+        printTable(expected);
+        String text = expected.toString();
+        assertTrue(buffer.isSpilled());
+        assertEquals(text.length(), buffer.length());
+        assertEquals(text, buffer.toString());
+        assertEquals(text.charAt(1000), buffer.charAt(1000));
+        assertEquals(text.substring(250, 300), buffer.subSequence(250, 300));
+        assertThrows(IndexOutOfBoundsException.class, () -> buffer.charAt(text.length()));
+
+        StringWriter writer = new StringWriter();
+        buffer.writeTo(writer);
+        assertEquals(text, writer.toString());
+        StringBuilder builder = new StringBuilder();
+        buffer.writeTo(builder);
+        assertEquals(text, builder.toString());
+        for (int regionSize : new int[]{257, 258, 4096}) {
+            try (SpillBuffer encoded = new SpillBuffer(0, regionSize)) {
+                encoded.append(text).append('!');
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                encoded.writeTo(Channels.newChannel(out));
+                assertEquals(text + "!", out.toString(StandardCharsets.UTF_8));
+            }
+        }
+
+        buffer.close();
+        buffer.close();
+        assertThrows(IllegalStateException.class, () -> buffer.append("a"));
+        assertThrows(IllegalStateException.class, buffer::toString);
+    }
+
+    /**
+     * Test the bad parameters of {@link SpillBuffer}.
+     */
+    @Test
+    void badParametersTest() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new SpillBuffer(-1));
+        assertThrows(IllegalArgumentException.class, () -> new SpillBuffer(10, 0));
+        try (SpillBuffer buffer = new SpillBuffer(10)) {
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.append("abc", 2, 1));
+            assertThrows(IllegalArgumentException.class, () -> buffer.writeTo((Appendable) null));
+            buffer.append(null);
+            assertEquals("null", buffer.toString());
+        }
+    }
+
+    /**
+     * Test that the heap content is kept when the spill fails.
+     */
+    @Test
+    void failedSpillTest(@TempDir Path directory) throws IOException {
+        String tmpDir = System.getProperty("java.io.tmpdir");
+        try (SpillBuffer buffer = new SpillBuffer(8)) {
+            buffer.append("abcdef");
+            System.setProperty("java.io.tmpdir", directory.resolve("missing").toString());
+            try {
+                assertThrows(IOException.class, () -> buffer.append("ghijkl"));
+            } finally {
+                System.setProperty("java.io.tmpdir", tmpDir);
+            }
+            assertFalse(buffer.isSpilled());
+            assertEquals("abcdef", buffer.toString());
+            buffer.append("ghijkl");
+            assertTrue(buffer.isSpilled());
+            assertEquals("abcdefghijkl", buffer.toString());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test class dedicated to the {@link Utf8ChannelWriter} and {@link DirectBufferPool} classes.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class Utf8ChannelWriterTest {
+
+    /**
+     * Test the encoding of the written characters.
+     */
+    @Test
+    void encodingTest() throws IOException {
+        String text = "ascii é ü € 中文 😀 end";
+        for (int size : new int[]{4, 5, 7, 1024}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Utf8ChannelWriter writer = new Utf8ChannelWriter(Channels.newChannel(out), new DirectBufferPool(size, 1));
+            for (int i = 0; i < 10; i++) {
+                writer.write(text);
+                writer.append(new StringBuilder(text), 2, 10);
+            }
+            char[] chars = text.toCharArray();
+            for (char c : chars) {
+                writer.write(new char[]{c}, 0, 1);
+            }
+            writer.close();
+            StringBuilder expected = new StringBuilder();
+            for (int i = 0; i < 10; i++) {
+                expected.append(text).append(text, 2, 10);
+            }
+            expected.append(text);
+            assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Test the replacement of the malformed surrogates.
+     */
+    @Test
+    void malformedTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8ChannelWriter writer = new Utf8ChannelWriter(Channels.newChannel(out));
+        writer.write("a\uDE00b\uD83Dc\uD83D");
+        writer.close();
+        assertEquals("a?b?c?", out.toString(StandardCharsets.UTF_8));
+        assertThrows(IOException.class, () -> writer.write("a"));
+        writer.close();
+    }
+
+    /**
+     * Test the streaming of a printer into the writer.
+     */
+    @Test
+    void printerTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8ChannelWriter writer = new Utf8ChannelWriter(Channels.newChannel(out), new DirectBufferPool(64, 1));
+        Ascii ascii = new Ascii(writer, 32);
+        Ascii expected = new Ascii();
+        for (Ascii printer : new Ascii[]{ascii, expected}) {
+            printer.startTable(8, 2);
+            for (int i = 0; i < 100; i++) {
+                printer.appendTableRow("é" + i, "€" + i);
+            }
+            printer.endTable();
+            printer.flush();
+        }
+        writer.close();
+        assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test the reuse of the pooled buffers.
+     */
+    @Test
+    void poolTest() throws IOException {
+        DirectBufferPool pool = new DirectBufferPool(16, 1);
+        ByteBuffer buffer = pool.acquire();
+        assertTrue(buffer.isDirect());
+        assertEquals(16, buffer.capacity());
+        buffer.put((byte) 1);
+        pool.release(buffer);
+        ByteBuffer reused = pool.acquire();
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        pool.release(reused);
+
+        Utf8ChannelWriter writer = new Utf8ChannelWriter(Channels.newChannel(new ByteArrayOutputStream()), pool);
+        writer.write("text");
+        writer.close();
+        assertSame(buffer, pool.acquire());
+
+        assertThrows(IllegalArgumentException.class, () -> pool.release(ByteBuffer.allocate(16)));
+        assertThrows(IllegalArgumentException.class, () -> pool.release(ByteBuffer.allocateDirect(8)));
+        assertThrows(IllegalArgumentException.class, () -> new DirectBufferPool(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DirectBufferPool(16, 0));
+        DirectBufferPool tooSmall = new DirectBufferPool(3, 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new Utf8ChannelWriter(Channels.newChannel(new ByteArrayOutputStream()), tooSmall));
+        assertThrows(IllegalArgumentException.class, () -> new Utf8ChannelWriter(null));
+    }
+}
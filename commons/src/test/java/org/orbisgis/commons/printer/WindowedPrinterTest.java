@@ -0,0 +1,133 @@
+/*
+ * Bundle Commons is part of the OrbisGIS platform
+ *
+ * OrbisGIS is a java GIS application dedicated to research in GIScience.
+ * OrbisGIS is developed by the GIS group of the DECIDE team of the
+ * Lab-STICC CNRS laboratory, see <http://www.lab-sticc.fr/>.
+ *
+ * The GIS group of the DECIDE team is located at :
+ *
+ * Laboratoire Lab-STICC – CNRS UMR 6285
+ * Equipe DECIDE
+ * UNIVERSITÉ DE BRETAGNE-SUD
+ * Institut Universitaire de Technologie de Vannes
+ * 8, Rue Montaigne - BP 561 56017 Vannes Cedex
+ *
+ * Commons is distributed under LGPL 3 license.
+ *
+ * Copyright (C) 2019-2020 CNRS (Lab-STICC UMR CNRS 6285)
+ *
+ *
+ * Commons is free software: you can redistribute it and/or modify it under the
+ * terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ *
+ * Commons is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR
+ * A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * Commons. If not, see <http://www.gnu.org/licenses/>.
+ *
+ * For more information, please consult: <http://www.orbisgis.org/>
+ * or contact directly:
+ * info_at_ orbisgis.org
+ */
+package org.orbisgis.commons.printer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.orbisgis.commons.printer.ICustomPrinter.CellPosition.*;
+
+/**
+ * Test class dedicated to the {@link WindowedPrinter} class.
+ *
+ * @author Erwan Bocher (CNRS)
+ * @author Sylvain PALOMINOS (Lab-STICC UBS 2020)
+ */
+class WindowedPrinterTest {
+
+    /**
+     * Test the building of a {@link WindowedPrinter}.
+     */
+    @Test
+    void buildTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new WindowedPrinter(null, 1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WindowedPrinter(new Ascii(), -1, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WindowedPrinter(new Ascii(), 1, -1));
+    }
+
+    /**
+     * Test the printing of the head and the tail of an {@link Ascii} table.
+     */
+    @Test
+    void asciiWindowTest() {
+        WindowedPrinter printer = new WindowedPrinter(new Ascii(), 2, 2);
+        printer.startTable(8, 3);
+        printer.appendTableLineSeparator();
+        printer.appendTableHeaderValue("id", CENTER);
+        printer.appendTableHeaderValue("name", CENTER);
+        printer.appendTableHeaderValue("value", CENTER);
+        printer.appendTableLineSeparator();
+        for (int i = 0; i < 1000; i++) {
+            printer.appendTableValue(i, RIGHT);
+            printer.appendTableValue("row" + i);
+            printer.appendTableValue(i * 0.5);
+        }
+        printer.appendTableLineSeparator();
+        assertEquals("+--------+--------+--------+\n" +
+                "|   id   |  name  | value  |\n" +
+                "+--------+--------+--------+\n" +
+                "|       0|row0    |0.0     |\n", printer.toString());
+        assertEquals(997, printer.getOmittedRowCount());
+        printer.endTable();
+        assertEquals("+--------+--------+--------+\n" +
+                "|   id   |  name  | value  |\n" +
+                "+--------+--------+--------+\n" +
+                "|       0|row0    |0.0     |\n" +
+                "| ... 997 rows omitted ... |\n" +
+                "|     998|row998  |499.0   |\n" +
+                "|     999|row999  |499.5   |\n" +
+                "+--------+--------+--------+\n", printer.toString());
+
+        printer.reset();
+        printer.startTable(5, 1);
+        printer.appendTableRow("a");
+        printer.appendTableRow("b");
+        printer.appendTableRow("c");
+        printer.endTable();
+        assertEquals(0, printer.getOmittedRowCount());
+        assertEquals("|a    |\n|b    |\n|c    |\n", printer.toString());
+    }
+
+    /**
+     * Test the printing of the head and the tail of an {@link Html} table without tail.
+     */
+    @Test
+    void htmlWindowTest() {
+        WindowedPrinter printer = new WindowedPrinter(new Html(), 1, 0);
+        printer.appendValue("text");
+        printer.startTable(5, 2);
+        printer.appendTableRow("a", "b");
+        printer.appendTableRow("c", "d");
+        printer.appendTableRow("e", "f");
+        printer.endTable();
+        assertEquals(2, printer.getOmittedRowCount());
+        assertEquals("<p>text</p>\n" +
+                "<table>\n" +
+                "<tr>\n" +
+                "<td align=\"LEFT\">a</td>\n" +
+                "<td align=\"LEFT\">b</td>\n" +
+                "</tr>\n" +
+                "<tr>\n" +
+                "<td colspan=\"2\" align=\"CENTER\">... 2 rows omitted ...</td>\n" +
+                "</tr>\n" +
+                "</table>\n", printer.toString());
+    }
+}